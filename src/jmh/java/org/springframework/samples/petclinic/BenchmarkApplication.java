@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import java.util.stream.Stream;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.samples.petclinic.owner.OwnerDataGenerator;
+
+/**
+ * Starts the application for benchmarks, optionally with the embedded database seeded by
+ * {@link OwnerDataGenerator}, so that benchmarks and the load test run against the same
+ * data set at a given scale.
+ */
+public final class BenchmarkApplication {
+
+	private BenchmarkApplication() {
+	}
+
+	/**
+	 * Start the application with logging turned down and Docker Compose support disabled.
+	 * Web applications listen on a random port.
+	 * @param type the type of application to start
+	 * @param args additional command line arguments
+	 * @return the running application context
+	 */
+	public static ConfigurableApplicationContext start(WebApplicationType type, String... args) {
+		String[] defaults = { "--spring.docker.compose.enabled=false", "--spring.main.banner-mode=off",
+				"--logging.level.org.springframework=WARN", "--server.port=0" };
+		return new SpringApplicationBuilder(PetClinicApplication.class).web(type)
+			.run(Stream.concat(Stream.of(defaults), Stream.of(args)).toArray(String[]::new));
+	}
+
+	/**
+	 * Start the application with the given number of owners generated on top of the
+	 * sample data, each with the generator's default of two pets with three visits.
+	 * @param type the type of application to start
+	 * @param owners the number of owners to generate
+	 * @param args additional command line arguments
+	 * @return the running application context
+	 * @see OwnerDataGenerator
+	 */
+	public static ConfigurableApplicationContext start(WebApplicationType type, int owners, String... args) {
+		return start(type, Stream.concat(Stream.of("--petclinic.generator.owners=" + owners), Stream.of(args))
+			.toArray(String[]::new));
+	}
+
+}
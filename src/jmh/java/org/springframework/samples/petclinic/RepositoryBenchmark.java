@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.samples.petclinic.model.KeysetPage;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
+import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.VetRepository;
+
+/**
+ * Measures the repository queries behind the owner and vet pages against the embedded
+ * database, seeded with {@code scale} generated owners (two pets with three visits each) on
+ * top of the sample data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int scale;
+
+	private ConfigurableApplicationContext context;
+
+	private OwnerRepository owners;
+
+	private VetRepository vets;
+
+	@Setup
+	public void startApplication() {
+		this.context = BenchmarkApplication.start(WebApplicationType.SERVLET, this.scale);
+		this.owners = this.context.getBean(OwnerRepository.class);
+		this.vets = this.context.getBean(VetRepository.class);
+	}
+
+	@TearDown
+	public void stopApplication() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public KeysetPage<OwnerSummary> findOwnersByLastName() {
+		return this.owners.findSummariesByLastNameStartingWith("Da", null, 5);
+	}
+
+	@Benchmark
+	public Owner findOwnerById() {
+		return this.owners.findById(6).orElseThrow();
+	}
+
+	@Benchmark
+	public OwnerSummary findOwnerSummaryById() {
+		return this.owners.findSummaryById(6).orElseThrow();
+	}
+
+	@Benchmark
+	public Pet findPet() {
+		return this.owners.findPet(6, 7).orElseThrow();
+	}
+
+	@Benchmark
+	public Collection<Vet> findAllVets() {
+		return this.vets.findAll();
+	}
+
+}
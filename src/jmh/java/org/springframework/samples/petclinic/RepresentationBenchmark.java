@@ -0,0 +1,180 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.samples.petclinic.owner.OwnerDetails;
+import org.springframework.samples.petclinic.owner.OwnerDetails.PetDetails;
+import org.springframework.samples.petclinic.owner.OwnerDetails.VisitDetails;
+import org.springframework.samples.petclinic.vet.Specialty;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.Vets;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+
+/**
+ * Measures writing the vet list and owner details in each representation of the APIs:
+ * JSON, XML (vets only, through JAXB), CBOR and Smile. Each benchmark streams
+ * {@code size} vets or owners, each owner with two pets of three visits, to a discarding
+ * output stream. The payload size of every representation is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepresentationBenchmark {
+
+	private static final String[] SPECIALTIES = { "dentistry", "radiology", "surgery" };
+
+	@Param({ "10", "1000" })
+	private int size;
+
+	private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+
+	private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+
+	private final ObjectMapper smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+
+	private Marshaller xml;
+
+	private Vets vets;
+
+	private List<OwnerDetails> owners;
+
+	// discards the payload and, unlike OutputStream.nullOutputStream(), keeps doing so
+	// once Jackson closed it
+	private final OutputStream out = new OutputStream() {
+
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+
+	};
+
+	@Setup
+	public void createPayloads() throws Exception {
+		this.xml = JAXBContext.newInstance(Vets.class).createMarshaller();
+		this.vets = new Vets();
+		for (int i = 1; i <= this.size; i++) {
+			Vet vet = new Vet();
+			vet.setId(i);
+			vet.setFirstName("James" + i);
+			vet.setLastName("Carter" + i);
+			for (int j = 0; j < i % SPECIALTIES.length; j++) {
+				Specialty specialty = new Specialty();
+				specialty.setId(j + 1);
+				specialty.setName(SPECIALTIES[j]);
+				vet.addSpecialty(specialty);
+			}
+			this.vets.getVetList().add(vet);
+		}
+		this.owners = new ArrayList<>();
+		LocalDate date = LocalDate.of(2024, 1, 1);
+		for (int i = 1; i <= this.size; i++) {
+			List<PetDetails> pets = new ArrayList<>();
+			for (int j = 0; j < 2; j++) {
+				List<VisitDetails> visits = new ArrayList<>();
+				for (int k = 0; k < 3; k++) {
+					visits.add(new VisitDetails(i * 6 + j * 3 + k, date.plusDays(k), "rabies shot"));
+				}
+				pets.add(new PetDetails(i * 2 + j, "Leo" + j, date.minusYears(3), "cat", visits));
+			}
+			this.owners.add(new OwnerDetails(i, "George", "Franklin" + i, "110 W. Liberty St.", "Madison",
+					"6085551023", pets));
+		}
+		System.out.printf("%nPayload bytes for %d vets: json=%d, xml=%d, cbor=%d, smile=%d%n", this.size,
+				size(this.json, this.vets), sizeOfXml(), size(this.cbor, this.vets), size(this.smile, this.vets));
+		System.out.printf("Payload bytes for %d owners: json=%d, cbor=%d, smile=%d%n", this.size,
+				size(this.json, this.owners), size(this.cbor, this.owners), size(this.smile, this.owners));
+	}
+
+	private static int size(ObjectMapper mapper, Object value) throws IOException {
+		return mapper.writeValueAsBytes(value).length;
+	}
+
+	private int sizeOfXml() throws JAXBException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		this.xml.marshal(this.vets, bytes);
+		return bytes.size();
+	}
+
+	@Benchmark
+	public void vetsAsJson() throws IOException {
+		this.json.writeValue(this.out, this.vets);
+	}
+
+	@Benchmark
+	public void vetsAsXml() throws JAXBException {
+		this.xml.marshal(this.vets, this.out);
+	}
+
+	@Benchmark
+	public void vetsAsCbor() throws IOException {
+		this.cbor.writeValue(this.out, this.vets);
+	}
+
+	@Benchmark
+	public void vetsAsSmile() throws IOException {
+		this.smile.writeValue(this.out, this.vets);
+	}
+
+	@Benchmark
+	public void ownersAsJson() throws IOException {
+		this.json.writeValue(this.out, this.owners);
+	}
+
+	@Benchmark
+	public void ownersAsCbor() throws IOException {
+		this.cbor.writeValue(this.out, this.owners);
+	}
+
+	@Benchmark
+	public void ownersAsSmile() throws IOException {
+		this.smile.writeValue(this.out, this.owners);
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.samples.petclinic.BenchmarkApplication;
+
+/**
+ * Measures {@link OwnerSearchIndex} lookups, seeded with {@code scale} generated owners
+ * on top of the sample data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OwnerSearchIndexBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int scale;
+
+	private ConfigurableApplicationContext context;
+
+	private OwnerSearchIndex index;
+
+	@Setup
+	public void startApplication() {
+		this.context = BenchmarkApplication.start(WebApplicationType.SERVLET, this.scale);
+		this.index = this.context.getBean(OwnerSearchIndex.class);
+	}
+
+	@TearDown
+	public void stopApplication() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public List<Integer> searchTelephone() {
+		return this.index.search("6085551023", 50);
+	}
+
+	@Benchmark
+	public List<Integer> searchLastNamePrefix() {
+		return this.index.search("dav", 50);
+	}
+
+	@Benchmark
+	public List<Integer> searchLastNameAndCity() {
+		return this.index.search("davis madison", 50);
+	}
+
+	@Benchmark
+	public List<Integer> searchSimilarLastName() {
+		return this.index.searchSimilarLastNames("Daivs", 50);
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.lang.reflect.Proxy;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PetTypeFormatter#parse(String, Locale)} for known and unknown pet types,
+ * with the {@link PetTypeRegistry} backed by a repository stub.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PetTypeFormatterBenchmark {
+
+	private PetTypeFormatter formatter;
+
+	@Setup
+	public void createFormatter() {
+		List<PetType> types = new ArrayList<>();
+		String[] names = { "bird", "cat", "dog", "hamster", "lizard", "snake" };
+		for (int i = 0; i < names.length; i++) {
+			PetType type = new PetType();
+			type.setId(i + 1);
+			type.setName(names[i]);
+			types.add(type);
+		}
+		OwnerRepository owners = (OwnerRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { OwnerRepository.class }, (proxy, method, args) -> {
+					if (method.getName().equals("findPetTypes")) {
+						return types;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+		this.formatter = new PetTypeFormatter(new PetTypeRegistry(owners, Duration.ofHours(1)));
+	}
+
+	@Benchmark
+	public PetType parseKnownType() throws ParseException {
+		return this.formatter.parse("snake", Locale.ENGLISH);
+	}
+
+	@Benchmark
+	public ParseException parseUnknownType() {
+		try {
+			this.formatter.parse("dragon", Locale.ENGLISH);
+			return null;
+		}
+		catch (ParseException ex) {
+			return ex;
+		}
+	}
+
+}
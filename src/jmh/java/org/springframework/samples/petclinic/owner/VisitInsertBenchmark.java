@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.BenchmarkApplication;
+
+/**
+ * Measures the cost of appending visit history through {@link VisitRepository}, with
+ * JDBC batching disabled ({@code batchSize=1}) and enabled. Each invocation saves
+ * {@value #VISITS} visits in one transaction and the score is reported per visit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisitInsertBenchmark {
+
+	private static final int VISITS = 1000;
+
+	@Param({ "1", "50" })
+	private int batchSize;
+
+	private ConfigurableApplicationContext context;
+
+	private VisitRepository visits;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		this.context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+				"--spring.jpa.properties.hibernate.jdbc.batch_size=" + this.batchSize);
+		this.visits = this.context.getBean(VisitRepository.class);
+		this.jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+	}
+
+	@TearDown(Level.Iteration)
+	public void deleteVisits() {
+		this.jdbcTemplate.update("DELETE FROM visits WHERE description = ?", "benchmark");
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		this.context.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(VISITS)
+	public List<Visit> saveVisits() {
+		List<Visit> batch = new ArrayList<>(VISITS);
+		for (int i = 0; i < VISITS; i++) {
+			Visit visit = new Visit();
+			visit.setPetId(1 + i % 13);
+			visit.setDate(LocalDate.of(2010, 1, 1).plusDays(i));
+			visit.setDescription("benchmark");
+			batch.add(visit);
+		}
+		return this.visits.saveAll(batch);
+	}
+
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.samples.petclinic.owner.OwnerDataGenerator;
+
+/**
+ * HTTP load test against a running application, usually one started by the
+ * <code>loadtest</code> Maven profile with a generated data set (see
+ * {@link OwnerDataGenerator}).
+ * <p>
+ * A number of client threads send requests back to back, each picking a scenario step at
+ * random: owner searches by (skewed) last name, owner details, the pet and visit forms,
+ * booking a visit and the vet list. Owner and pet ids are discovered from the search
+ * results first. After a warm-up phase the latencies of each step are recorded for the
+ * configured duration, then p50, p99, max and throughput are printed and written as JSON.
+ * <p>
+ * Arguments: base URL, number of threads, warm-up seconds, measured seconds and the path
+ * of the JSON report.
+ */
+public final class LoadTest {
+
+	private static final Pattern OWNER_LINK = Pattern.compile("href=\"/owners/(\\d+)\"");
+
+	private static final Pattern PET_LINK = Pattern.compile("href=\"(\\d+)/pets/(\\d+)/edit\"");
+
+	private final URI baseUri;
+
+	private final HttpClient client = HttpClient.newBuilder()
+		.connectTimeout(Duration.ofSeconds(5))
+		.followRedirects(HttpClient.Redirect.NEVER)
+		.build();
+
+	private final List<Integer> ownerIds = new ArrayList<>();
+
+	private final List<int[]> petIds = new ArrayList<>();
+
+	private LoadTest(URI baseUri) {
+		this.baseUri = baseUri;
+	}
+
+	public static void main(String[] args) throws Exception {
+		URI baseUri = URI.create((args.length > 0) ? args[0] : "http://localhost:8080");
+		int threads = (args.length > 1) ? Integer.parseInt(args[1]) : 16;
+		int warmup = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+		int duration = (args.length > 3) ? Integer.parseInt(args[3]) : 30;
+		Path report = Path.of((args.length > 4) ? args[4] : "target/loadtest/loadtest-report.json");
+
+		LoadTest test = new LoadTest(baseUri);
+		test.discover();
+		System.out.printf("Discovered %d owners and %d pets, warming up for %ds with %d threads%n",
+				test.ownerIds.size(), test.petIds.size(), warmup, threads);
+		test.run(threads, Duration.ofSeconds(warmup));
+		System.out.printf("Measuring for %ds%n", duration);
+		Map<Step, Recorder> results = test.run(threads, Duration.ofSeconds(duration));
+		String json = report(results, duration);
+		Files.createDirectories(report.toAbsolutePath().getParent());
+		Files.writeString(report, json);
+		System.out.println("Report written to " + report.toAbsolutePath());
+	}
+
+	/**
+	 * Collect owner ids from the search results for the most common last names and pet
+	 * ids from the details pages of some of those owners.
+	 */
+	private void discover() {
+		SplittableRandom random = new SplittableRandom(7);
+		Set<String> lastNames = new LinkedHashSet<>();
+		for (int i = 0; i < 1000 && lastNames.size() < 30; i++) {
+			lastNames.add(OwnerDataGenerator.lastName(random));
+		}
+		Set<Integer> owners = new LinkedHashSet<>();
+		for (String lastName : lastNames) {
+			Matcher matcher = OWNER_LINK.matcher(get("/owners?lastName=" + encode(lastName)).body());
+			while (matcher.find()) {
+				owners.add(Integer.valueOf(matcher.group(1)));
+			}
+		}
+		this.ownerIds.addAll(owners);
+		for (Integer ownerId : this.ownerIds.subList(0, Math.min(100, this.ownerIds.size()))) {
+			Matcher matcher = PET_LINK.matcher(get("/owners/" + ownerId).body());
+			while (matcher.find()) {
+				this.petIds.add(new int[] { Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)) });
+			}
+		}
+		if (this.ownerIds.isEmpty() || this.petIds.isEmpty()) {
+			throw new IllegalStateException("No owners or pets found at " + this.baseUri);
+		}
+	}
+
+	private Map<Step, Recorder> run(int threads, Duration duration) throws Exception {
+		long deadline = System.nanoTime() + duration.toNanos();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Map<Step, Recorder>>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				SplittableRandom random = new SplittableRandom(i);
+				futures.add(executor.submit(() -> runClient(random, deadline)));
+			}
+			Map<Step, Recorder> results = new LinkedHashMap<>();
+			for (Step step : Step.values()) {
+				results.put(step, new Recorder());
+			}
+			for (Future<Map<Step, Recorder>> future : futures) {
+				future.get().forEach((step, recorder) -> results.get(step).addAll(recorder));
+			}
+			return results;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Map<Step, Recorder> runClient(SplittableRandom random, long deadline) {
+		Map<Step, Recorder> recorders = new LinkedHashMap<>();
+		for (Step step : Step.values()) {
+			recorders.put(step, new Recorder());
+		}
+		while (System.nanoTime() < deadline) {
+			Step step = Step.pick(random);
+			long start = System.nanoTime();
+			boolean ok;
+			try {
+				ok = execute(step, random);
+			}
+			catch (UncheckedIOException ex) {
+				ok = false;
+			}
+			recorders.get(step).record(System.nanoTime() - start, ok);
+		}
+		return recorders;
+	}
+
+	private boolean execute(Step step, SplittableRandom random) {
+		int[] pet = this.petIds.get(random.nextInt(this.petIds.size()));
+		String petPath = "/owners/" + pet[0] + "/pets/" + pet[1];
+		return switch (step) {
+			case FIND_OWNERS -> isOk(get("/owners?lastName=" + encode(OwnerDataGenerator.lastName(random))));
+			case OWNER_DETAILS -> isOk(get("/owners/" + this.ownerIds.get(random.nextInt(this.ownerIds.size()))));
+			case PET_FORM -> isOk(get(petPath + "/edit"));
+			case VISIT_FORM -> isOk(get(petPath + "/visits/new"));
+			case BOOK_VISIT -> isOk(post(petPath + "/visits/new", "date=2025-01-01&description=load+test"));
+			case VET_LIST -> isOk(get("/vets.html"));
+		};
+	}
+
+	private static boolean isOk(HttpResponse<String> response) {
+		return response.statusCode() < 400;
+	}
+
+	private HttpResponse<String> get(String path) {
+		return send(HttpRequest.newBuilder(this.baseUri.resolve(path)).GET());
+	}
+
+	private HttpResponse<String> post(String path, String form) {
+		return send(HttpRequest.newBuilder(this.baseUri.resolve(path))
+			.header("Content-Type", "application/x-www-form-urlencoded")
+			.POST(HttpRequest.BodyPublishers.ofString(form)));
+	}
+
+	private HttpResponse<String> send(HttpRequest.Builder request) {
+		try {
+			return this.client.send(request.timeout(Duration.ofSeconds(30)).build(),
+					HttpResponse.BodyHandlers.ofString());
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+	private static String report(Map<Step, Recorder> results, int seconds) {
+		StringBuilder json = new StringBuilder("{\"durationSeconds\":").append(seconds).append(",\"steps\":[");
+		System.out.printf("%n%-14s %9s %7s %10s %10s %10s %10s%n", "step", "requests", "errors", "req/s", "p50 ms",
+				"p99 ms", "max ms");
+		Recorder total = new Recorder();
+		boolean first = true;
+		for (Map.Entry<Step, Recorder> entry : results.entrySet()) {
+			Recorder recorder = entry.getValue();
+			total.addAll(recorder);
+			print(entry.getKey().name().toLowerCase(), recorder, seconds);
+			json.append(first ? "" : ",").append(toJson(entry.getKey().name().toLowerCase(), recorder, seconds));
+			first = false;
+		}
+		print("total", total, seconds);
+		return json.append("],\"total\":").append(toJson("total", total, seconds)).append("}\n").toString();
+	}
+
+	private static void print(String name, Recorder recorder, int seconds) {
+		System.out.printf("%-14s %9d %7d %10.1f %10.2f %10.2f %10.2f%n", name, recorder.count(), recorder.errors,
+				(double) recorder.count() / seconds, recorder.percentile(50), recorder.percentile(99),
+				recorder.percentile(100));
+	}
+
+	private static String toJson(String name, Recorder recorder, int seconds) {
+		return String.format(
+				"{\"step\":\"%s\",\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,\"p50\":%.3f,\"p99\":%.3f,\"max\":%.3f}",
+				name, recorder.count(), recorder.errors, (double) recorder.count() / seconds, recorder.percentile(50),
+				recorder.percentile(99), recorder.percentile(100));
+	}
+
+	/**
+	 * The steps of the scenario with their share of the requests, in percent.
+	 */
+	private enum Step {
+
+		FIND_OWNERS(35), OWNER_DETAILS(25), PET_FORM(10), VISIT_FORM(10), BOOK_VISIT(5), VET_LIST(15);
+
+		private final int weight;
+
+		Step(int weight) {
+			this.weight = weight;
+		}
+
+		static Step pick(SplittableRandom random) {
+			int value = random.nextInt(100);
+			for (Step step : values()) {
+				value -= step.weight;
+				if (value < 0) {
+					return step;
+				}
+			}
+			return VET_LIST;
+		}
+
+	}
+
+	/**
+	 * Records the latencies of one step.
+	 */
+	private static class Recorder {
+
+		private long[] latencies = new long[1024];
+
+		private int count;
+
+		private int errors;
+
+		void record(long nanos, boolean ok) {
+			if (this.count == this.latencies.length) {
+				this.latencies = Arrays.copyOf(this.latencies, this.count * 2);
+			}
+			this.latencies[this.count++] = nanos;
+			if (!ok) {
+				this.errors++;
+			}
+		}
+
+		void addAll(Recorder other) {
+			for (int i = 0; i < other.count; i++) {
+				record(other.latencies[i], true);
+			}
+			this.errors += other.errors;
+		}
+
+		int count() {
+			return this.count;
+		}
+
+		/**
+		 * Return the given percentile of the latencies in milliseconds.
+		 */
+		double percentile(double percentile) {
+			if (this.count == 0) {
+				return 0;
+			}
+			long[] sorted = Arrays.copyOf(this.latencies, this.count);
+			Arrays.sort(sorted);
+			int index = (int) Math.ceil(percentile / 100 * this.count) - 1;
+			return sorted[Math.max(index, 0)] / 1_000_000.0;
+		}
+
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.samples.petclinic;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.context.annotation.ImportRuntimeHints;
 
 /**
@@ -26,7 +27,9 @@ import org.springframework.context.annotation.ImportRuntimeHints;
  * @author Dave Syer
  *
  */
-@SpringBootApplication
+// The R2DBC connection factory is derived from the JDBC data source, which Spring Boot
+// would not configure next to an auto-configured one (see R2dbcConfiguration)
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @ImportRuntimeHints(PetClinicRuntimeHints.class)
 public class PetClinicApplication {
 
@@ -25,6 +25,11 @@ import jakarta.persistence.MappedSuperclass;
 /**
  * Simple JavaBean domain object with an id property. Used as a base class for objects
  * needing this property.
+ * <p>
+ * Identifiers are drawn from one sequence per table (e.g. {@code owners_seq}), in blocks
+ * of 50. Unlike identity columns this lets Hibernate assign ids before flushing, so new
+ * entities are inserted in JDBC batches. On databases without sequences Hibernate uses a
+ * single-row table of the same name instead.
  *
  * @author Ken Krebs
  * @author Juergen Hoeller
@@ -33,7 +38,7 @@ import jakarta.persistence.MappedSuperclass;
 public class BaseEntity implements Serializable {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
 	private Integer id;
 
 	public Integer getId() {
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Position in a list of {@link Person}s ordered by last name and id, used for keyset
+ * (seek) pagination. A cursor points either <i>after</i> or <i>before</i> a given key so
+ * that both the next and the previous page can be fetched with an index seek instead of
+ * an <code>OFFSET</code> scan.
+ * <p>
+ * Cursors are exchanged with the browser in their {@link #encode() encoded} form.
+ * </p>
+ */
+public final class KeysetCursor {
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final boolean forward;
+
+	private final String lastName;
+
+	private final Integer id;
+
+	private KeysetCursor(boolean forward, String lastName, Integer id) {
+		Assert.notNull(lastName, "Last name must not be null!");
+		Assert.notNull(id, "Id must not be null!");
+		this.forward = forward;
+		this.lastName = lastName;
+		this.id = id;
+	}
+
+	/**
+	 * Create a cursor pointing to the elements following the given key.
+	 * @param lastName the last name of the key element
+	 * @param id the id of the key element
+	 * @return the cursor
+	 */
+	public static KeysetCursor after(String lastName, Integer id) {
+		return new KeysetCursor(true, lastName, id);
+	}
+
+	/**
+	 * Create a cursor pointing to the elements preceding the given key.
+	 * @param lastName the last name of the key element
+	 * @param id the id of the key element
+	 * @return the cursor
+	 */
+	public static KeysetCursor before(String lastName, Integer id) {
+		return new KeysetCursor(false, lastName, id);
+	}
+
+	/**
+	 * Decode a cursor previously created with {@link #encode()}.
+	 * @param encoded the encoded cursor, may be {@literal null} or empty
+	 * @return the cursor, or {@literal null} if no cursor was given
+	 * @throws InvalidCursorException if the value is not a valid cursor
+	 */
+	public static KeysetCursor decode(String encoded) {
+		if (!StringUtils.hasText(encoded)) {
+			return null;
+		}
+		try {
+			String decoded = new String(DECODER.decode(encoded), StandardCharsets.UTF_8);
+			String[] parts = decoded.split(":", 3);
+			Assert.isTrue(parts.length == 3, "Missing cursor parts");
+			Assert.isTrue(parts[0].equals("a") || parts[0].equals("b"), "Unknown cursor direction");
+			return new KeysetCursor(parts[0].equals("a"), parts[2], Integer.valueOf(parts[1]));
+		}
+		catch (IllegalArgumentException ex) {
+			throw new InvalidCursorException("Invalid page cursor: " + encoded, ex);
+		}
+	}
+
+	public boolean isForward() {
+		return this.forward;
+	}
+
+	public String getLastName() {
+		return this.lastName;
+	}
+
+	public Integer getId() {
+		return this.id;
+	}
+
+	/**
+	 * Encode this cursor into an opaque, URL-safe token.
+	 * @return the encoded cursor
+	 */
+	public String encode() {
+		String raw = (this.forward ? "a" : "b") + ":" + this.id + ":" + this.lastName;
+		return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		return other instanceof KeysetCursor that && this.forward == that.forward && this.lastName.equals(that.lastName)
+				&& this.id.equals(that.id);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.forward, this.lastName, this.id);
+	}
+
+	@Override
+	public String toString() {
+		return encode();
+	}
+
+	/**
+	 * Thrown when a cursor sent by a client cannot be decoded, answered with
+	 * <code>400 Bad Request</code>.
+	 */
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public static class InvalidCursorException extends IllegalArgumentException {
+
+		InvalidCursorException(String message, Throwable cause) {
+			super(message, cause);
+		}
+
+	}
+
+}
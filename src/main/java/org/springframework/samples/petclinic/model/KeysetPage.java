@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of elements fetched with keyset pagination, together with the cursors needed to
+ * navigate to the neighbouring pages. No total count is computed: deep pages cost the
+ * same as the first one.
+ *
+ * @param <T> the type of the page elements
+ * @see KeysetCursor
+ */
+public final class KeysetPage<T> {
+
+	private final List<T> content;
+
+	private final KeysetCursor previousCursor;
+
+	private final KeysetCursor nextCursor;
+
+	private KeysetPage(List<T> content, KeysetCursor previousCursor, KeysetCursor nextCursor) {
+		this.content = content;
+		this.previousCursor = previousCursor;
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * Create a page from the rows returned by a seek query. The query is expected to have
+	 * fetched up to <code>size + 1</code> rows starting at the given cursor, in
+	 * descending order when the cursor points backwards; the extra row only signals that
+	 * another page exists in the direction of the scan.
+	 * @param fetched the fetched rows
+	 * @param cursor the cursor the rows were fetched from, or {@literal null} for the
+	 * first page
+	 * @param size the page size
+	 * @param lastName returns the last name of an element
+	 * @param id returns the id of an element
+	 * @return the page
+	 */
+	public static <T> KeysetPage<T> of(List<T> fetched, KeysetCursor cursor, int size, Function<T, String> lastName,
+			Function<T, Integer> id) {
+		boolean more = fetched.size() > size;
+		List<T> content = new ArrayList<>(more ? fetched.subList(0, size) : fetched);
+		boolean forward = cursor == null || cursor.isForward();
+		if (!forward) {
+			Collections.reverse(content);
+		}
+		boolean hasPrevious = forward ? cursor != null : more;
+		boolean hasNext = forward ? more : true;
+		if (content.isEmpty()) {
+			return new KeysetPage<>(content, null, null);
+		}
+		T first = content.get(0);
+		T last = content.get(content.size() - 1);
+		return new KeysetPage<>(Collections.unmodifiableList(content),
+				hasPrevious ? KeysetCursor.before(lastName.apply(first), id.apply(first)) : null,
+				hasNext ? KeysetCursor.after(lastName.apply(last), id.apply(last)) : null);
+	}
+
+	public List<T> getContent() {
+		return this.content;
+	}
+
+	public boolean isEmpty() {
+		return this.content.isEmpty();
+	}
+
+	public boolean hasPrevious() {
+		return this.previousCursor != null;
+	}
+
+	public boolean hasNext() {
+		return this.nextCursor != null;
+	}
+
+	/**
+	 * Return the cursor of the previous page.
+	 * @return the cursor, or {@literal null} if this is the first page
+	 */
+	public KeysetCursor getPreviousCursor() {
+		return this.previousCursor;
+	}
+
+	/**
+	 * Return the cursor of the next page.
+	 * @return the cursor, or {@literal null} if this is the last page
+	 */
+	public KeysetCursor getNextCursor() {
+		return this.nextCursor;
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Lookup keys for finding last names that sound like or are spelled almost like a
+ * misspelled one, see {@link OwnerSearchIndex#searchSimilarLastNames(String, int)}.
+ * <p>
+ * Every last name is indexed under its Soundex code, itself and all the variants obtained
+ * by deleting one of its letters. Names that differ by an inserted, deleted or replaced
+ * letter or by two swapped letters share at least one of these keys, so close names are
+ * found by exact key lookups instead of comparing the query with every name.
+ */
+final class LastNameKeys {
+
+	private static final String SOUNDEX_CODES = "01230120022455012623010202";
+
+	private LastNameKeys() {
+	}
+
+	/**
+	 * Return the given last name in lower case, without accents and without anything but
+	 * letters.
+	 * @param lastName the last name
+	 * @return the normalized last name, possibly empty
+	 */
+	static String normalize(String lastName) {
+		if (lastName == null) {
+			return "";
+		}
+		String decomposed = Normalizer.normalize(lastName, Normalizer.Form.NFD);
+		return decomposed.replaceAll("[^\\p{L}]", "").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Return the lookup keys of the given normalized last name: its Soundex code, the
+	 * name itself and the name with each one of its letters deleted.
+	 * @param name the normalized last name
+	 * @return the keys
+	 */
+	static Set<String> keys(String name) {
+		Set<String> keys = new LinkedHashSet<>();
+		keys.add("#" + soundex(name));
+		keys.add(name);
+		for (int i = 0; i < name.length(); i++) {
+			keys.add(name.substring(0, i) + name.substring(i + 1));
+		}
+		return keys;
+	}
+
+	/**
+	 * Return the American Soundex code of the given normalized last name: its first
+	 * letter followed by three digits for the following consonant sounds.
+	 * @param name the normalized last name
+	 * @return the code, empty for an empty name
+	 */
+	static String soundex(String name) {
+		if (name.isEmpty()) {
+			return "";
+		}
+		StringBuilder code = new StringBuilder(4).append(Character.toUpperCase(name.charAt(0)));
+		char previous = code(name.charAt(0));
+		for (int i = 1; i < name.length() && code.length() < 4; i++) {
+			char c = name.charAt(i);
+			char digit = code(c);
+			if (digit != '0' && digit != previous) {
+				code.append(digit);
+			}
+			// 'h' and 'w' do not separate consonants with the same code, vowels do
+			if (c != 'h' && c != 'w') {
+				previous = digit;
+			}
+		}
+		while (code.length() < 4) {
+			code.append('0');
+		}
+		return code.toString();
+	}
+
+	private static char code(char c) {
+		return (c >= 'a' && c <= 'z') ? SOUNDEX_CODES.charAt(c - 'a') : '0';
+	}
+
+	/**
+	 * Return the optimal string alignment distance between the given names: the number of
+	 * letters inserted, deleted, replaced or swapped with their neighbor to turn one into
+	 * the other.
+	 * @param a a normalized last name
+	 * @param b another normalized last name
+	 * @return the distance
+	 */
+	static int distance(String a, String b) {
+		int[][] d = new int[a.length() + 1][b.length() + 1];
+		for (int i = 0; i <= a.length(); i++) {
+			d[i][0] = i;
+		}
+		for (int j = 0; j <= b.length(); j++) {
+			d[0][j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = (a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1;
+				d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+				if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+					d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+				}
+			}
+		}
+		return d[a.length()][b.length()];
+	}
+
+}
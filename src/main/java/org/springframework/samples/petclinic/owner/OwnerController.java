@@ -15,12 +15,13 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.samples.petclinic.model.KeysetCursor;
+import org.springframework.samples.petclinic.model.KeysetPage;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -31,7 +32,6 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.servlet.ModelAndView;
 
 import jakarta.validation.Valid;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -48,23 +48,32 @@ class OwnerController {
 
 	private static final String VIEWS_OWNER_CREATE_OR_UPDATE_FORM = "owners/createOrUpdateOwnerForm";
 
+	private static final int MAX_SEARCH_RESULTS = 50;
+
 	private final OwnerRepository owners;
 
-	public OwnerController(OwnerRepository owners) {
+	private final OwnerResolver ownerResolver;
+
+	private final OwnerSearchIndex searchIndex;
+
+	private final ApplicationEventPublisher events;
+
+	public OwnerController(OwnerRepository owners, OwnerResolver ownerResolver, OwnerSearchIndex searchIndex,
+			ApplicationEventPublisher events) {
 		this.owners = owners;
+		this.ownerResolver = ownerResolver;
+		this.searchIndex = searchIndex;
+		this.events = events;
 	}
 
 	@InitBinder
 	public void setAllowedFields(WebDataBinder dataBinder) {
-		dataBinder.setDisallowedFields("id");
+		dataBinder.setDisallowedFields("id", "version");
 	}
 
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable(name = "ownerId", required = false) Integer ownerId) {
-		return ownerId == null ? new Owner()
-				: this.owners.findById(ownerId)
-					.orElseThrow(() -> new IllegalArgumentException("Owner not found with id: " + ownerId
-							+ ". Please ensure the ID is correct " + "and the owner exists in the database."));
+		return ownerId == null ? new Owner() : this.ownerResolver.getOwner(ownerId);
 	}
 
 	@GetMapping("/owners/new")
@@ -80,6 +89,7 @@ class OwnerController {
 		}
 
 		this.owners.save(owner);
+		this.events.publishEvent(OwnersChangedEvent.of(owner.getId()));
 		redirectAttributes.addFlashAttribute("message", "New Owner Created");
 		return "redirect:/owners/" + owner.getId();
 	}
@@ -90,7 +100,7 @@ class OwnerController {
 	}
 
 	@GetMapping("/owners")
-	public String processFindForm(@RequestParam(defaultValue = "1") int page, Owner owner, BindingResult result,
+	public String processFindForm(@RequestParam(required = false) String cursor, Owner owner, BindingResult result,
 			Model model) {
 		// allow parameterless GET request for /owners to return all records
 		if (owner.getLastName() == null) {
@@ -98,36 +108,74 @@ class OwnerController {
 		}
 
 		// find owners by last name
-		Page<Owner> ownersResults = findPaginatedForOwnersLastName(page, owner.getLastName());
-		if (ownersResults.isEmpty()) {
-			// no owners found
+		KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+		KeysetPage<OwnerSummary> ownersResults = findPaginatedForOwnersLastName(keysetCursor, owner.getLastName());
+		if (ownersResults.isEmpty() && keysetCursor == null) {
+			// no owners found, maybe the last name is misspelled
+			List<Integer> similar = this.searchIndex.searchSimilarLastNames(owner.getLastName(), MAX_SEARCH_RESULTS);
+			if (!similar.isEmpty()) {
+				List<OwnerSummary> summaries = new ArrayList<>(this.owners.findSummariesByIdIn(similar));
+				summaries.sort(Comparator.comparingInt((summary) -> similar.indexOf(summary.getId())));
+				model.addAttribute("similarTo", owner.getLastName());
+				model.addAttribute("listOwners", summaries);
+				return "owners/ownersList";
+			}
 			result.rejectValue("lastName", "notFound", "not found");
 			return "owners/findOwners";
 		}
 
-		if (ownersResults.getTotalElements() == 1) {
+		if (ownersResults.getContent().size() == 1 && keysetCursor == null) {
 			// 1 owner found
-			owner = ownersResults.iterator().next();
-			return "redirect:/owners/" + owner.getId();
+			return "redirect:/owners/" + ownersResults.getContent().get(0).getId();
 		}
 
 		// multiple owners found
-		return addPaginationModel(page, model, ownersResults);
+		return addPaginationModel(owner.getLastName(), model, ownersResults);
 	}
 
-	private String addPaginationModel(int page, Model model, Page<Owner> paginated) {
-		List<Owner> listOwners = paginated.getContent();
-		model.addAttribute("currentPage", page);
-		model.addAttribute("totalPages", paginated.getTotalPages());
-		model.addAttribute("totalItems", paginated.getTotalElements());
-		model.addAttribute("listOwners", listOwners);
+	/**
+	 * Search owners by any of their names, city, telephone number and pet names through
+	 * the {@link OwnerSearchIndex}. Every word of the query must be the start of one of
+	 * these. Matches are shown {@value #MAX_SEARCH_RESULTS} at a time, in the order of
+	 * their ids, each page sorted by last name.
+	 * @param query the words to search for
+	 * @param after the id of the last owner of the previous page, if any
+	 * @return the owners list, the owner's details if there is only one match or the find
+	 * form if there is none
+	 */
+	@GetMapping("/owners/search")
+	public String processSearchForm(@RequestParam(name = "q", defaultValue = "") String query,
+			@RequestParam(required = false) Integer after, Model model) {
+		List<Integer> ownerIds = this.searchIndex.search(query, after, MAX_SEARCH_RESULTS + 1);
+		if (ownerIds.size() == 1 && after == null) {
+			return "redirect:/owners/" + ownerIds.get(0);
+		}
+		model.addAttribute("query", query);
+		if (ownerIds.isEmpty()) {
+			model.addAttribute("searchNotFound", true);
+			return "owners/findOwners";
+		}
+		if (ownerIds.size() > MAX_SEARCH_RESULTS) {
+			ownerIds = ownerIds.subList(0, MAX_SEARCH_RESULTS);
+			model.addAttribute("searchPageSize", MAX_SEARCH_RESULTS);
+			model.addAttribute("searchAfter", ownerIds.get(MAX_SEARCH_RESULTS - 1));
+		}
+		model.addAttribute("searchFirst", after != null);
+		model.addAttribute("listOwners", this.owners.findSummariesByIdIn(ownerIds));
+		return "owners/ownersList";
+	}
+
+	private String addPaginationModel(String lastName, Model model, KeysetPage<OwnerSummary> paginated) {
+		model.addAttribute("lastName", lastName);
+		model.addAttribute("previousCursor", paginated.getPreviousCursor());
+		model.addAttribute("nextCursor", paginated.getNextCursor());
+		model.addAttribute("listOwners", paginated.getContent());
 		return "owners/ownersList";
 	}
 
-	private Page<Owner> findPaginatedForOwnersLastName(int page, String lastname) {
+	private KeysetPage<OwnerSummary> findPaginatedForOwnersLastName(KeysetCursor cursor, String lastname) {
 		int pageSize = 5;
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
-		return owners.findByLastNameStartingWith(lastname, pageable);
+		return owners.findSummariesByLastNameStartingWith(lastname, cursor, pageSize);
 	}
 
 	@GetMapping("/owners/{ownerId}/edit")
@@ -151,23 +199,9 @@ class OwnerController {
 
 		owner.setId(ownerId);
 		this.owners.save(owner);
+		this.events.publishEvent(OwnersChangedEvent.of(ownerId));
 		redirectAttributes.addFlashAttribute("message", "Owner Values Updated");
 		return "redirect:/owners/{ownerId}";
 	}
 
-	/**
-	 * Custom handler for displaying an owner.
-	 * @param ownerId the ID of the owner to display
-	 * @return a ModelMap with the model attributes for the view
-	 */
-	@GetMapping("/owners/{ownerId}")
-	public ModelAndView showOwner(@PathVariable("ownerId") int ownerId) {
-		ModelAndView mav = new ModelAndView("owners/ownerDetails");
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
-		mav.addObject(owner);
-		return mav;
-	}
-
 }
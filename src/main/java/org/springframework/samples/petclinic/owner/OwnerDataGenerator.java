@@ -0,0 +1,219 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.samples.petclinic.owner.OwnerImporter.ImportResult;
+import org.springframework.samples.petclinic.owner.OwnerImporter.OwnerRecord;
+import org.springframework.samples.petclinic.owner.OwnerImporter.PetRecord;
+import org.springframework.samples.petclinic.owner.OwnerImporter.VisitRecord;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a synthetic data set of owners, pets and visits on startup, for reproducing
+ * production-scale behavior locally. Enabled by setting
+ * <code>petclinic.generator.owners</code> to the number of owners to add; every owner
+ * gets <code>petclinic.generator.pets-per-owner</code> pets with
+ * <code>petclinic.generator.visits-per-pet</code> visits each.
+ * <p>
+ * The data only depends on the configured counts and
+ * <code>petclinic.generator.seed</code>. Last names follow a Zipf distribution over
+ * common surnames (see {@link #lastName(SplittableRandom)}), so that searches hit a few
+ * very long and many short result lists, as they do in practice. The records are written
+ * in batches through {@link OwnerImporter}.
+ */
+@Component
+@ConditionalOnProperty("petclinic.generator.owners")
+public class OwnerDataGenerator implements ApplicationRunner {
+
+	private static final Log logger = LogFactory.getLog(OwnerDataGenerator.class);
+
+	/**
+	 * Common surnames, most frequent first.
+	 */
+	private static final String[] LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+			"Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+			"Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark",
+			"Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen",
+			"Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter",
+			"Roberts", "Gomez", "Phillips", "Evans", "Turner", "Diaz", "Parker", "Cruz", "Edwards", "Collins", "Reyes",
+			"Stewart", "Morris", "Morales", "Murphy", "Cook", "Rogers", "Gutierrez", "Ortiz", "Morgan", "Cooper",
+			"Peterson", "Bailey", "Reed", "Kelly", "Howard", "Ramos", "Kim", "Cox", "Ward", "Richardson", "Watson",
+			"Brooks", "Chavez", "Wood", "James", "Bennett", "Gray", "Mendoza", "Ruiz", "Hughes", "Price", "Alvarez",
+			"Castillo", "Sanders", "Patel", "Myers", "Long", "Ross", "Foster", "Jimenez" };
+
+	private static final double[] LAST_NAME_CUMULATIVE_WEIGHTS = new double[LAST_NAMES.length];
+
+	static {
+		double total = 0;
+		for (int i = 0; i < LAST_NAMES.length; i++) {
+			total += 1.0 / (i + 1);
+			LAST_NAME_CUMULATIVE_WEIGHTS[i] = total;
+		}
+		for (int i = 0; i < LAST_NAMES.length; i++) {
+			LAST_NAME_CUMULATIVE_WEIGHTS[i] /= total;
+		}
+	}
+
+	private static final String[] FIRST_NAMES = { "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+			"Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+			"Sarah", "Charles", "Karen", "Maria", "Daniel", "Nancy", "Matthew", "Lisa" };
+
+	private static final String[] CITIES = { "Madison", "Sun Prairie", "McFarland", "Windsor", "Monona", "Waunakee",
+			"Middleton", "Verona", "Fitchburg", "Stoughton" };
+
+	private static final String[] STREETS = { "Main St.", "Liberty St.", "Cardinal Ave.", "Commerce St.", "Lake St.",
+			"Oak Ave.", "Park Blvd.", "Elm St." };
+
+	private static final String[] PET_NAMES = { "Leo", "Basil", "Rosy", "Jewel", "Iggy", "George", "Samantha", "Max",
+			"Lucky", "Mulligan", "Freddy", "Sly", "Bella", "Charlie", "Luna", "Daisy", "Milo", "Coco" };
+
+	private static final String[] DESCRIPTIONS = { "rabies shot", "neutered", "spayed", "annual checkup",
+			"dental cleaning", "vaccination", "skin allergy", "limping" };
+
+	private static final LocalDate REFERENCE_DATE = LocalDate.of(2025, 1, 1);
+
+	private final OwnerImporter importer;
+
+	private final PetTypeRegistry petTypes;
+
+	private final int owners;
+
+	private final int petsPerOwner;
+
+	private final int visitsPerPet;
+
+	private final long seed;
+
+	public OwnerDataGenerator(OwnerImporter importer, PetTypeRegistry petTypes,
+			@Value("${petclinic.generator.owners}") int owners,
+			@Value("${petclinic.generator.pets-per-owner:2}") int petsPerOwner,
+			@Value("${petclinic.generator.visits-per-pet:3}") int visitsPerPet,
+			@Value("${petclinic.generator.seed:42}") long seed) {
+		this.importer = importer;
+		this.petTypes = petTypes;
+		this.owners = owners;
+		this.petsPerOwner = petsPerOwner;
+		this.visitsPerPet = visitsPerPet;
+		this.seed = seed;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		logger.info("Generating " + this.owners + " owners with " + this.petsPerOwner + " pets and " + this.visitsPerPet
+				+ " visits per pet");
+		ImportResult result = this.importer.importOwners(records(), (batch) -> {
+			if (batch.error() != null) {
+				logger.warn("Batch " + batch.batch() + " failed: " + batch.error());
+			}
+		});
+		logger.info("Generated " + result.owners() + " owners, " + result.pets() + " pets and " + result.visits()
+				+ " visits in " + result.durationMillis() + " ms");
+	}
+
+	/**
+	 * Return the generated owner records. Each call returns a new iterator over the same
+	 * records.
+	 * @return the records, created as they are consumed
+	 */
+	public Iterator<OwnerRecord> records() {
+		SplittableRandom random = new SplittableRandom(this.seed);
+		List<String> types = this.petTypes.findAll().stream().map(PetType::getName).toList();
+		return new Iterator<>() {
+
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return this.index < OwnerDataGenerator.this.owners;
+			}
+
+			@Override
+			public OwnerRecord next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return owner(this.index++, random, types);
+			}
+
+		};
+	}
+
+	private OwnerRecord owner(int index, SplittableRandom random, List<String> types) {
+		List<PetRecord> pets = new ArrayList<>(this.petsPerOwner);
+		Set<String> petNames = new HashSet<>();
+		for (int i = 0; i < this.petsPerOwner; i++) {
+			List<VisitRecord> visits = new ArrayList<>(this.visitsPerPet);
+			for (int j = 0; j < this.visitsPerPet; j++) {
+				visits.add(
+						new VisitRecord(REFERENCE_DATE.minusDays(random.nextInt(5 * 365)), pick(DESCRIPTIONS, random)));
+			}
+			pets.add(new PetRecord(uniqueName(pick(PET_NAMES, random), petNames),
+					REFERENCE_DATE.minusDays(random.nextInt(15 * 365)), types.get(random.nextInt(types.size())),
+					visits));
+		}
+		return new OwnerRecord(pick(FIRST_NAMES, random), lastName(random),
+				(1 + random.nextInt(9999)) + " " + pick(STREETS, random), pick(CITIES, random),
+				String.format("608%07d", index % 10_000_000), pets);
+	}
+
+	private static String pick(String[] values, SplittableRandom random) {
+		return values[random.nextInt(values.length)];
+	}
+
+	/**
+	 * Return the given pet name, numbered if the owner already has a pet of that name:
+	 * {@link OwnerImporter} rejects owners with two pets of the same name.
+	 * @param name the drawn name
+	 * @param taken the lower-case names of the owner's other pets, to add the name to
+	 * @return the unique name
+	 */
+	private static String uniqueName(String name, Set<String> taken) {
+		String unique = name;
+		for (int number = 2; !taken.add(unique.toLowerCase(Locale.ROOT)); number++) {
+			unique = name + " " + number;
+		}
+		return unique;
+	}
+
+	/**
+	 * Draw a last name from the common surnames, the n-th most common one with a
+	 * probability proportional to 1/n.
+	 * @param random the source of randomness
+	 * @return the last name
+	 */
+	public static String lastName(SplittableRandom random) {
+		int index = Arrays.binarySearch(LAST_NAME_CUMULATIVE_WEIGHTS, random.nextDouble());
+		return LAST_NAMES[Math.min((index >= 0) ? index : -index - 1, LAST_NAMES.length - 1)];
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read-only view of an {@link Owner} with its pets and their visits, as returned by the
+ * reactive read API and by {@link OwnerRestController}. Unlike the entities, it can be
+ * serialized without a persistence context.
+ *
+ * @param id the id of the owner
+ * @param firstName the first name of the owner
+ * @param lastName the last name of the owner
+ * @param address the address of the owner
+ * @param city the city of the owner
+ * @param telephone the telephone number of the owner
+ * @param pets the pets of the owner, ordered by name
+ * @see ReactiveOwnerRepository#findById(int)
+ */
+public record OwnerDetails(Integer id, String firstName, String lastName, String address, String city, String telephone,
+		List<PetDetails> pets) {
+
+	/**
+	 * Read-only view of a {@link Pet}.
+	 *
+	 * @param id the id of the pet
+	 * @param name the name of the pet
+	 * @param birthDate the birth date of the pet
+	 * @param type the name of the type of the pet
+	 * @param visits the visits of the pet, ordered by date in the reactive read API, the
+	 * most recent ones first in {@link OwnerRestController}
+	 */
+	public record PetDetails(Integer id, String name, LocalDate birthDate, String type, List<VisitDetails> visits) {
+	}
+
+	/**
+	 * Read-only view of a {@link Visit}.
+	 *
+	 * @param id the id of the visit
+	 * @param date the date of the visit
+	 * @param description the description of the visit
+	 */
+	public record VisitDetails(Integer id, LocalDate date, String description) {
+	}
+
+}
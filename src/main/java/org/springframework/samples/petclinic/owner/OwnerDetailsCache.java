@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the rendered details, pets and visits of {@link Owner}s, keyed by owner id and
+ * locale, in the <code>ownerDetails</code> cache. An owner's entries are evicted as soon
+ * as an {@link OwnersChangedEvent} names the owner, which the controllers publish after
+ * committing a change to the owner, one of its pets or one of their visits.
+ * <p>
+ * The cache holds one map of rendered fragments by locale per owner. A fragment is always
+ * rendered into the map obtained <i>before</i> the owner was loaded: when the owner
+ * changes in the meantime, that map has already been evicted and the outdated fragment is
+ * discarded with it.
+ */
+@Component
+class OwnerDetailsCache {
+
+	static final String CACHE_NAME = "ownerDetails";
+
+	private final Cache cache;
+
+	OwnerDetailsCache(CacheManager cacheManager) {
+		this.cache = cacheManager.getCache(CACHE_NAME);
+		if (this.cache == null) {
+			throw new IllegalStateException(
+					"Cache '" + CACHE_NAME + "' is not declared, set petclinic.cache.specs[" + CACHE_NAME + "]");
+		}
+	}
+
+	/**
+	 * Return the rendered details of the given owner in the given locale, rendering them
+	 * on first access.
+	 * @param ownerId the id of the owner
+	 * @param locale the locale of the rendered details
+	 * @param renderer loads the owner and renders its details
+	 * @return the rendered details
+	 */
+	String get(int ownerId, Locale locale, Supplier<String> renderer) {
+		Map<Locale, String> rendered = this.cache.get(ownerId, ConcurrentHashMap::new);
+		return rendered.computeIfAbsent(locale, (key) -> renderer.get());
+	}
+
+	/**
+	 * Evict the rendered details of the changed owners.
+	 * @param event the event naming the changed owners
+	 */
+	@EventListener
+	public void onOwnersChanged(OwnersChangedEvent event) {
+		for (Integer ownerId : event.ownerIds()) {
+			this.cache.evict(ownerId);
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.samples.petclinic.system.PrimaryReads;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.servlet.ModelAndView;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Shows the details of an owner. The owner's details, pets and visits are rendered from
+ * <code>owners/ownerDetailsFragment</code> and served from the {@link OwnerDetailsCache}
+ * until the owner changes, so the owner is only loaded when they are not cached. Unlike
+ * {@link OwnerController}, this controller has no <code>@ModelAttribute</code> method
+ * loading the owner for every request.
+ * <p>
+ * Only the <code>petclinic.visits.recent</code> most recent visits of each pet are shown,
+ * older ones are paged through {@link VisitController}. Cached details are read from the
+ * primary database, see {@link PrimaryReads}.
+ */
+@Controller
+class OwnerDetailsController {
+
+	private final OwnerResolver ownerResolver;
+
+	private final VisitRepository visits;
+
+	private final OwnerDetailsCache cache;
+
+	private final ITemplateEngine templateEngine;
+
+	private final JakartaServletWebApplication application;
+
+	private final int recentVisits;
+
+	OwnerDetailsController(OwnerResolver ownerResolver, VisitRepository visits, OwnerDetailsCache cache,
+			ITemplateEngine templateEngine, ServletContext servletContext,
+			@Value("${petclinic.visits.recent:5}") int recentVisits) {
+		this.ownerResolver = ownerResolver;
+		this.visits = visits;
+		this.cache = cache;
+		this.templateEngine = templateEngine;
+		this.application = JakartaServletWebApplication.buildApplication(servletContext);
+		this.recentVisits = recentVisits;
+	}
+
+	/**
+	 * Custom handler for displaying an owner.
+	 * @param ownerId the ID of the owner to display
+	 * @return a ModelMap with the model attributes for the view
+	 */
+	@GetMapping("/owners/{ownerId}")
+	public ModelAndView showOwner(@PathVariable("ownerId") int ownerId, Locale locale, HttpServletRequest request,
+			HttpServletResponse response) {
+		// cached until the owner changes, so never read from a lagging replica
+		String details = this.cache.get(ownerId, locale, () -> PrimaryReads.call(() -> {
+			Owner owner = this.ownerResolver.getOwner(ownerId);
+			Map<Integer, VisitPage> recentVisits = this.visits
+				.findLatestPagesByPetIdIn(owner.getPets().stream().map(Pet::getId).toList(), this.recentVisits);
+			WebContext context = new WebContext(this.application.buildExchange(request, response), locale,
+					Map.of("owner", owner, "visits", recentVisits));
+			return this.templateEngine.process("owners/ownerDetailsFragment", Set.of("details"), context);
+		}));
+		return new ModelAndView("owners/ownerDetails", "ownerDetails", details);
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.samples.petclinic.system.PrimaryReads;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers conditional requests for the owner details page,
+ * <code>/owners/{ownerId}</code>, from the owner's version alone. The page shows the
+ * whole {@link Owner} aggregate, whose version changes with the owner, its pets and their
+ * visits, so the version together with the locale identifies what is rendered. A request
+ * whose <code>If-None-Match</code> header matches is answered with
+ * <code>304 Not Modified</code> after a single indexed lookup, before the owner is loaded
+ * by {@link OwnerDetailsController} and before the view is rendered.
+ * <p>
+ * The entity tag also includes the start time of the application, so that pages cached by
+ * an older release of the templates are never reused.
+ */
+@Component
+public class OwnerETagInterceptor implements HandlerInterceptor {
+
+	private final String startup = Long.toString(System.currentTimeMillis(), 36);
+
+	private final OwnerRepository owners;
+
+	public OwnerETagInterceptor(OwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+			return true;
+		}
+		// a flash message is shown only once, the page must be rendered
+		if (!CollectionUtils.isEmpty(RequestContextUtils.getInputFlashMap(request))) {
+			return true;
+		}
+		Integer ownerId = getOwnerId(request);
+		if (ownerId == null) {
+			return true;
+		}
+		// the version of what the primary holds, as cached details are read from it
+		Optional<Integer> version = PrimaryReads.call(() -> this.owners.findVersionById(ownerId));
+		if (version.isEmpty()) {
+			return true;
+		}
+		String etag = "W/\"" + ownerId + "-" + version.get() + "-" + RequestContextUtils.getLocale(request) + "-"
+				+ this.startup + "\"";
+		return !new ServletWebRequest(request, response).checkNotModified(etag);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Integer getOwnerId(HttpServletRequest request) {
+		Map<String, String> variables = (Map<String, String>) request
+			.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		String ownerId = (variables != null) ? variables.get("ownerId") : null;
+		if (ownerId == null) {
+			return null;
+		}
+		try {
+			return Integer.valueOf(ownerId);
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Streams all owners with their pets and visits, see {@link OwnerExporter}. The format is
+ * chosen with the <code>format</code> parameter, <code>ndjson</code> (the default) or
+ * <code>csv</code>; any other format is answered with <code>400 Bad Request</code>.
+ */
+@Controller
+class OwnerExportController {
+
+	private final OwnerExporter exporter;
+
+	public OwnerExportController(OwnerExporter exporter) {
+		this.exporter = exporter;
+	}
+
+	@GetMapping("/owners/export")
+	public void exportOwners(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response)
+			throws IOException {
+		boolean csv = switch (format) {
+			case "ndjson" -> false;
+			case "csv" -> true;
+			default ->
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+		};
+		response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				ContentDisposition.attachment().filename("owners." + format).build().toString());
+		if (csv) {
+			this.exporter.exportCsv(response.getOutputStream());
+		}
+		else {
+			this.exporter.exportNdjson(response.getOutputStream());
+		}
+	}
+
+}
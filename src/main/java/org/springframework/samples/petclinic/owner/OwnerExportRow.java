@@ -0,0 +1,31 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the owner export: an owner joined with one of its pets and one of that pet's
+ * visits. The pet columns are {@literal null} for owners without pets and the visit
+ * columns are {@literal null} for pets without visits.
+ *
+ * @see OwnerRepository#streamExportRows()
+ */
+public record OwnerExportRow(Integer ownerId, String firstName, String lastName, String address, String city,
+		String telephone, Integer petId, String petName, LocalDate birthDate, String petType, Integer visitId,
+		LocalDate visitDate, String description) {
+
+}
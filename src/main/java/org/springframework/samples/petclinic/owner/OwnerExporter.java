@@ -0,0 +1,183 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams all {@link Owner}s with their {@link Pet}s and {@link Visit}s to an output
+ * stream, either as newline-delimited JSON with one owner per line (the format read by
+ * {@link OwnerImporter}, plus ids) or as CSV with one row per visit.
+ * <p>
+ * The data is read through {@link OwnerRepository#streamExportRows()} and written as it
+ * arrives; neither the result set nor a single owner is ever held in memory as a whole.
+ */
+@Component
+public class OwnerExporter {
+
+	private static final String CSV_HEADER = "owner_id,first_name,last_name,address,city,telephone,"
+			+ "pet_id,pet_name,birth_date,pet_type,visit_id,visit_date,description";
+
+	private final OwnerRepository owners;
+
+	private final ObjectMapper objectMapper;
+
+	public OwnerExporter(OwnerRepository owners, ObjectMapper objectMapper) {
+		this.owners = owners;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Write all owners as newline-delimited JSON.
+	 * @param out the stream to write to, not closed by this method
+	 * @return the number of owners written
+	 * @throws IOException if the output cannot be written
+	 */
+	@Transactional(readOnly = true)
+	public long exportNdjson(OutputStream out) throws IOException {
+		long count = 0;
+		try (Stream<OwnerExportRow> rows = this.owners.streamExportRows();
+				JsonGenerator json = this.objectMapper.getFactory().createGenerator(out)) {
+			json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			json.setRootValueSeparator(null);
+			Integer ownerId = null;
+			Integer petId = null;
+			for (Iterator<OwnerExportRow> it = rows.iterator(); it.hasNext();) {
+				OwnerExportRow row = it.next();
+				if (!row.ownerId().equals(ownerId)) {
+					if (ownerId != null) {
+						endOwner(json, petId != null);
+					}
+					json.writeStartObject();
+					json.writeNumberField("id", row.ownerId());
+					json.writeStringField("firstName", row.firstName());
+					json.writeStringField("lastName", row.lastName());
+					json.writeStringField("address", row.address());
+					json.writeStringField("city", row.city());
+					json.writeStringField("telephone", row.telephone());
+					json.writeArrayFieldStart("pets");
+					ownerId = row.ownerId();
+					petId = null;
+					count++;
+				}
+				if (row.petId() != null && !row.petId().equals(petId)) {
+					if (petId != null) {
+						endPet(json);
+					}
+					json.writeStartObject();
+					json.writeNumberField("id", row.petId());
+					json.writeStringField("name", row.petName());
+					json.writeStringField("birthDate", Objects.toString(row.birthDate(), null));
+					json.writeStringField("type", row.petType());
+					json.writeArrayFieldStart("visits");
+					petId = row.petId();
+				}
+				if (row.visitId() != null) {
+					json.writeStartObject();
+					json.writeNumberField("id", row.visitId());
+					json.writeStringField("date", Objects.toString(row.visitDate(), null));
+					json.writeStringField("description", row.description());
+					json.writeEndObject();
+				}
+			}
+			if (ownerId != null) {
+				endOwner(json, petId != null);
+			}
+		}
+		return count;
+	}
+
+	private void endPet(JsonGenerator json) throws IOException {
+		json.writeEndArray();
+		json.writeEndObject();
+	}
+
+	private void endOwner(JsonGenerator json, boolean inPet) throws IOException {
+		if (inPet) {
+			endPet(json);
+		}
+		json.writeEndArray();
+		json.writeEndObject();
+		json.writeRaw('\n');
+	}
+
+	/**
+	 * Write all owners as CSV with a header line and one line per visit. Owners without
+	 * pets and pets without visits get a line with empty pet or visit columns.
+	 * @param out the stream to write to, not closed by this method
+	 * @return the number of lines written, excluding the header
+	 * @throws IOException if the output cannot be written
+	 */
+	@Transactional(readOnly = true)
+	public long exportCsv(OutputStream out) throws IOException {
+		long count = 0;
+		Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		csv.write(CSV_HEADER);
+		csv.write("\r\n");
+		try (Stream<OwnerExportRow> rows = this.owners.streamExportRows()) {
+			for (Iterator<OwnerExportRow> it = rows.iterator(); it.hasNext();) {
+				OwnerExportRow row = it.next();
+				writeCsvLine(csv, row.ownerId(), row.firstName(), row.lastName(), row.address(), row.city(),
+						row.telephone(), row.petId(), row.petName(), row.birthDate(), row.petType(), row.visitId(),
+						row.visitDate(), row.description());
+				count++;
+			}
+		}
+		csv.flush();
+		return count;
+	}
+
+	private void writeCsvLine(Writer csv, Object... values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				csv.write(',');
+			}
+			Object value = values[i];
+			if (value instanceof String text) {
+				writeCsvText(csv, text);
+			}
+			else if (value != null) {
+				csv.write(value.toString());
+			}
+		}
+		csv.write("\r\n");
+	}
+
+	private void writeCsvText(Writer csv, String text) throws IOException {
+		if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+			csv.write(text);
+			return;
+		}
+		csv.write('"');
+		csv.write(text.replace("\"", "\"\""));
+		csv.write('"');
+	}
+
+}
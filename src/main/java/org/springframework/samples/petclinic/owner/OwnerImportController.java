@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.springframework.samples.petclinic.owner.OwnerImporter.ImportResult;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Accepts bulk imports of owners as newline-delimited JSON, see {@link OwnerImporter}.
+ * The response is newline-delimited JSON as well: one line per batch, written as soon as
+ * the batch is done, followed by a line with the totals.
+ */
+@Controller
+class OwnerImportController {
+
+	private static final String NDJSON = "application/x-ndjson";
+
+	private final OwnerImporter importer;
+
+	private final ObjectWriter writer;
+
+	public OwnerImportController(OwnerImporter importer, ObjectMapper objectMapper) {
+		this.importer = importer;
+		this.writer = objectMapper.writer();
+	}
+
+	@PostMapping(path = "/owners/import", consumes = NDJSON)
+	public void importOwners(@RequestParam(required = false) Integer batchSize, InputStream body,
+			HttpServletResponse response) throws IOException {
+		response.setContentType(NDJSON);
+		OutputStream out = response.getOutputStream();
+		ImportResult result;
+		try {
+			result = (batchSize != null) ? this.importer.importOwners(body, batchSize, (batch) -> writeLine(batch, out))
+					: this.importer.importOwners(body, (batch) -> writeLine(batch, out));
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+		writeLine(result, out);
+	}
+
+	private void writeLine(Object value, OutputStream out) {
+		try {
+			out.write(this.writer.writeValueAsBytes(value));
+			out.write('\n');
+			out.flush();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.ValidationUtils;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk import of {@link Owner}s together with their {@link Pet}s and {@link Visit}s.
+ * <p>
+ * The input is newline-delimited JSON with one owner per line, e.g. <pre class="code">
+ * {"firstName":"Ann","lastName":"Lee","address":"1 Main St.","city":"Madison","telephone":"6085551023",
+ *  "pets":[{"name":"Rex","birthDate":"2019-04-02","type":"dog",
+ *           "visits":[{"date":"2020-01-13","description":"rabies shot"}]}]}
+ * </pre> Records are read one at a time and only the current batch is held in memory. The
+ * next record is not read until the previous batch has been written, so a slow data store
+ * slows down the reader (and, through the socket, the client) instead of filling up the
+ * heap.
+ * <p>
+ * Every record is validated with the same rules as the forms, bean validation for owners
+ * and visits and {@link PetValidator} for pets. Pet types are resolved by name through
+ * {@link PetTypeRegistry}. Invalid records are rejected as a whole and reported with
+ * their line number, as are lines that are not well-formed JSON; the import goes on with
+ * the next line. Valid records are written through a Hibernate {@link StatelessSession},
+ * one transaction per batch, so that neither a persistence context nor dirty checking
+ * gets in the way. A batch that fails to write is rolled back and reported without
+ * stopping the import.
+ */
+@Component
+public class OwnerImporter {
+
+	private final SessionFactory sessionFactory;
+
+	private final PetTypeRegistry petTypes;
+
+	private final SpringValidatorAdapter validator;
+
+	private final PetValidator petValidator = new PetValidator();
+
+	private final ObjectReader reader;
+
+	private final MeterRegistry registry;
+
+	private final ApplicationEventPublisher events;
+
+	private final int defaultBatchSize;
+
+	public OwnerImporter(EntityManagerFactory entityManagerFactory, PetTypeRegistry petTypes, Validator validator,
+			ObjectMapper objectMapper, MeterRegistry registry, ApplicationEventPublisher events,
+			@Value("${petclinic.import.batch-size:1000}") int defaultBatchSize) {
+		this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		this.petTypes = petTypes;
+		this.validator = new SpringValidatorAdapter(validator);
+		this.reader = objectMapper.readerFor(OwnerRecord.class);
+		this.registry = registry;
+		this.events = events;
+		this.defaultBatchSize = defaultBatchSize;
+	}
+
+	/**
+	 * Import the owners read from the given input using the configured batch size.
+	 * @param input the newline-delimited JSON to read, not closed by this method
+	 * @param listener notified after each batch has been written or has failed
+	 * @return the totals of the import
+	 * @throws IOException if the input cannot be read
+	 */
+	public ImportResult importOwners(InputStream input, Consumer<BatchResult> listener) throws IOException {
+		return importOwners(input, this.defaultBatchSize, listener);
+	}
+
+	/**
+	 * Import the owners read from the given input.
+	 * @param input the newline-delimited JSON to read, not closed by this method
+	 * @param batchSize the number of rows (owners, pets and visits) to write per
+	 * transaction, each rejected record counting as one row
+	 * @param listener notified after each batch has been written or has failed
+	 * @return the totals of the import
+	 * @throws IOException if the input cannot be read
+	 */
+	public ImportResult importOwners(InputStream input, int batchSize, Consumer<BatchResult> listener)
+			throws IOException {
+		Import run = new Import(batchSize, listener);
+		// lines are independent, so a malformed one is rejected like an invalid record
+		BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		long lineNumber = 0;
+		String line;
+		while ((line = lines.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank()) {
+				continue;
+			}
+			try {
+				run.add(this.reader.readValue(line), lineNumber);
+			}
+			catch (JsonProcessingException ex) {
+				run.reject(lineNumber, List.of(ex.getOriginalMessage()));
+			}
+		}
+		return run.finish();
+	}
+
+	/**
+	 * Import the given owner records using the configured batch size.
+	 * @param records the records to import, consumed one at a time
+	 * @param listener notified after each batch has been written or has failed
+	 * @return the totals of the import
+	 * @see #importOwners(Iterator, int, Consumer)
+	 */
+	public ImportResult importOwners(Iterator<OwnerRecord> records, Consumer<BatchResult> listener) {
+		return importOwners(records, this.defaultBatchSize, listener);
+	}
+
+	/**
+	 * Import the given owner records, e.g. generated ones. Rejections and batches report
+	 * the position of a record (starting at 1) as its line.
+	 * @param records the records to import, consumed one at a time
+	 * @param batchSize the number of rows (owners, pets and visits) to write per
+	 * transaction, each rejected record counting as one row
+	 * @param listener notified after each batch has been written or has failed
+	 * @return the totals of the import
+	 */
+	public ImportResult importOwners(Iterator<OwnerRecord> records, int batchSize, Consumer<BatchResult> listener) {
+		Import run = new Import(batchSize, listener);
+		long position = 0;
+		while (records.hasNext()) {
+			run.add(records.next(), ++position);
+		}
+		return run.finish();
+	}
+
+	private void read(OwnerRecord record, long line, Batch batch) {
+		Owner owner = new Owner();
+		owner.setFirstName(record.firstName());
+		owner.setLastName(record.lastName());
+		owner.setAddress(record.address());
+		owner.setCity(record.city());
+		owner.setTelephone(record.telephone());
+		List<String> errors = new ArrayList<>();
+		validate(owner, "", errors);
+		// The entity collections are left empty, a stateless session would try to link
+		// their elements before they have been inserted
+		List<PetRow> petRows = new ArrayList<>();
+		List<VisitRow> visitRows = new ArrayList<>();
+		List<PetRecord> pets = (record.pets() != null) ? record.pets() : List.of();
+		Set<String> petNames = new HashSet<>();
+		for (int i = 0; i < pets.size(); i++) {
+			PetRecord petRecord = pets.get(i);
+			// pet names are unique per owner, ignoring case, as in the pet form
+			if (petRecord.name() != null && !petNames.add(petRecord.name().toLowerCase(Locale.ROOT))) {
+				errors.add("pets[" + i + "].name: already exists");
+			}
+			Pet pet = new Pet();
+			pet.setName(petRecord.name());
+			pet.setBirthDate(petRecord.birthDate());
+			pet.setType((petRecord.type() != null) ? this.petTypes.findByName(petRecord.type()) : null);
+			if (petRecord.type() != null && pet.getType() == null) {
+				errors.add("pets[" + i + "].type: unknown pet type '" + petRecord.type() + "'");
+			}
+			else {
+				validate(pet, "pets[" + i + "].", errors);
+			}
+			List<VisitRecord> visits = (petRecord.visits() != null) ? petRecord.visits() : List.of();
+			for (int j = 0; j < visits.size(); j++) {
+				VisitRecord visitRecord = visits.get(j);
+				Visit visit = new Visit();
+				if (visitRecord.date() != null) {
+					visit.setDate(visitRecord.date());
+				}
+				visit.setDescription(visitRecord.description());
+				validate(visit, "pets[" + i + "].visits[" + j + "].", errors);
+				visitRows.add(new VisitRow(pet, visit));
+			}
+			petRows.add(new PetRow(owner, pet));
+		}
+		if (errors.isEmpty()) {
+			batch.add(owner, petRows, visitRows);
+		}
+		else {
+			batch.reject(line, errors);
+		}
+	}
+
+	private void validate(Object target, String path, List<String> messages) {
+		Errors errors = new BeanPropertyBindingResult(target, "target");
+		if (target instanceof Pet) {
+			ValidationUtils.invokeValidator(this.petValidator, target, errors);
+		}
+		else {
+			ValidationUtils.invokeValidator(this.validator, target, errors);
+		}
+		for (ObjectError error : errors.getAllErrors()) {
+			String field = (error instanceof FieldError fieldError) ? fieldError.getField() : error.getObjectName();
+			messages.add(path + field + ": " + error.getDefaultMessage());
+		}
+	}
+
+	private BatchResult write(Batch batch, int batchSize, Totals totals) {
+		Timer.Sample sample = Timer.start(this.registry);
+		String error = batch.owners.isEmpty() ? null : insert(batch, batchSize);
+		String outcome = (error != null) ? "failure" : "success";
+		sample.stop(this.registry.timer("petclinic.import.batch", "outcome", outcome));
+		count("owners", outcome, batch.owners.size());
+		count("pets", outcome, batch.pets.size());
+		count("visits", outcome, batch.visits.size());
+		count("records", "rejected", batch.rejected.size());
+
+		totals.batches++;
+		totals.rejected += batch.rejected.size();
+		if (error != null) {
+			totals.failed += batch.owners.size();
+		}
+		else {
+			totals.owners += batch.owners.size();
+			totals.pets += batch.pets.size();
+			totals.visits += batch.visits.size();
+			if (!batch.owners.isEmpty()) {
+				this.events.publishEvent(new OwnersChangedEvent(batch.owners.stream().map(Owner::getId).toList()));
+			}
+		}
+		return new BatchResult(batch.number, batch.firstLine, batch.lastLine, (error != null) ? 0 : batch.owners.size(),
+				(error != null) ? 0 : batch.pets.size(), (error != null) ? 0 : batch.visits.size(), batch.rejected,
+				error);
+	}
+
+	private String insert(Batch batch, int batchSize) {
+		try (StatelessSession session = this.sessionFactory.openStatelessSession()) {
+			session.setJdbcBatchSize(batchSize);
+			Transaction transaction = session.beginTransaction();
+			try {
+				// Insert table by table so that consecutive inserts share a JDBC batch
+				for (Owner owner : batch.owners) {
+					session.insert(owner);
+				}
+				for (PetRow row : batch.pets) {
+					row.pet().setOwnerId(row.owner().getId());
+					session.insert(row.pet());
+				}
+				for (VisitRow row : batch.visits) {
+					row.visit().setPetId(row.pet().getId());
+					session.insert(row.visit());
+				}
+				transaction.commit();
+				return null;
+			}
+			catch (RuntimeException ex) {
+				if (transaction.isActive()) {
+					transaction.rollback();
+				}
+				return ex.getMessage();
+			}
+		}
+	}
+
+	private void count(String type, String outcome, long amount) {
+		if (amount > 0) {
+			Counter.builder("petclinic.import.rows")
+				.tag("type", type)
+				.tag("outcome", outcome)
+				.register(this.registry)
+				.increment(amount);
+		}
+	}
+
+	/**
+	 * An owner as read from the import.
+	 */
+	public record OwnerRecord(String firstName, String lastName, String address, String city, String telephone,
+			List<PetRecord> pets) {
+	}
+
+	/**
+	 * A pet as read from the import; the type is given by name.
+	 */
+	public record PetRecord(String name, LocalDate birthDate, String type, List<VisitRecord> visits) {
+	}
+
+	/**
+	 * A visit as read from the import; visits without a date are booked for today, as in
+	 * the visit form.
+	 */
+	public record VisitRecord(LocalDate date, String description) {
+	}
+
+	/**
+	 * A record that was not imported because it failed validation.
+	 */
+	public record Rejection(long line, List<String> errors) {
+	}
+
+	/**
+	 * The outcome of one batch. If the batch failed to write, the error is set and no
+	 * rows of the batch have been imported.
+	 */
+	public record BatchResult(int batch, long firstLine, long lastLine, int owners, int pets, int visits,
+			List<Rejection> rejected, String error) {
+	}
+
+	/**
+	 * The totals of an import.
+	 */
+	public record ImportResult(int batches, long owners, long pets, long visits, long rejected, long failed,
+			long durationMillis) {
+
+		/**
+		 * Return the number of rows (owners, pets and visits) written per second.
+		 * @return the import throughput
+		 */
+		public long getRowsPerSecond() {
+			return (this.durationMillis > 0) ? (this.owners + this.pets + this.visits) * 1000 / this.durationMillis : 0;
+		}
+
+	}
+
+	/**
+	 * The state of one import: the batch being filled and the totals so far.
+	 */
+	private final class Import {
+
+		private final int batchSize;
+
+		private final Consumer<BatchResult> listener;
+
+		private final long started = System.nanoTime();
+
+		private final Totals totals = new Totals();
+
+		private Batch batch = new Batch(1);
+
+		Import(int batchSize, Consumer<BatchResult> listener) {
+			if (batchSize < 1) {
+				throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+			}
+			this.batchSize = batchSize;
+			this.listener = listener;
+		}
+
+		void add(OwnerRecord record, long line) {
+			this.batch.startLine(line);
+			read(record, line, this.batch);
+			flushIfFull();
+		}
+
+		void reject(long line, List<String> errors) {
+			this.batch.startLine(line);
+			this.batch.reject(line, errors);
+			flushIfFull();
+		}
+
+		private void flushIfFull() {
+			if (this.batch.rows() >= this.batchSize) {
+				this.listener.accept(write(this.batch, this.batchSize, this.totals));
+				this.batch = new Batch(this.batch.number + 1);
+			}
+		}
+
+		ImportResult finish() {
+			if (!this.batch.isEmpty()) {
+				this.listener.accept(write(this.batch, this.batchSize, this.totals));
+			}
+			return new ImportResult(this.totals.batches, this.totals.owners, this.totals.pets, this.totals.visits,
+					this.totals.rejected, this.totals.failed,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.started));
+		}
+
+	}
+
+	private record PetRow(Owner owner, Pet pet) {
+	}
+
+	private record VisitRow(Pet pet, Visit visit) {
+	}
+
+	private static class Batch {
+
+		private final int number;
+
+		private final List<Owner> owners = new ArrayList<>();
+
+		private final List<PetRow> pets = new ArrayList<>();
+
+		private final List<VisitRow> visits = new ArrayList<>();
+
+		private final List<Rejection> rejected = new ArrayList<>();
+
+		private long firstLine;
+
+		private long lastLine;
+
+		Batch(int number) {
+			this.number = number;
+		}
+
+		void startLine(long line) {
+			if (this.firstLine == 0) {
+				this.firstLine = line;
+			}
+			this.lastLine = line;
+		}
+
+		void add(Owner owner, List<PetRow> pets, List<VisitRow> visits) {
+			this.owners.add(owner);
+			this.pets.addAll(pets);
+			this.visits.addAll(visits);
+		}
+
+		// rejected records count as one row each, so that a run of invalid records
+		// is reported in bounded batches too
+		int rows() {
+			return this.owners.size() + this.pets.size() + this.visits.size() + this.rejected.size();
+		}
+
+		void reject(long line, List<String> errors) {
+			this.rejected.add(new Rejection(line, errors));
+		}
+
+		boolean isEmpty() {
+			return this.owners.isEmpty() && this.rejected.isEmpty();
+		}
+
+	}
+
+	private static class Totals {
+
+		private int batches;
+
+		private long owners;
+
+		private long pets;
+
+		private long visits;
+
+		private long rejected;
+
+		private long failed;
+
+	}
+
+}
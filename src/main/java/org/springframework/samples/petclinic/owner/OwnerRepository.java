@@ -15,14 +15,28 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import jakarta.annotation.Nonnull;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.samples.petclinic.model.KeysetCursor;
+import org.springframework.samples.petclinic.model.KeysetPage;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository class for <code>Owner</code> domain objects All method names are compliant
@@ -36,23 +50,140 @@ import org.springframework.data.jpa.repository.Query;
  * @author Michael Isvy
  * @author Wick Dynex
  */
-public interface OwnerRepository extends JpaRepository<Owner, Integer> {
+public interface OwnerRepository extends JpaRepository<Owner, Integer>, OwnerVersioning {
 
 	/**
-	 * Retrieve all {@link PetType}s from the data store.
+	 * JPQL constructor expression selecting an {@link OwnerSummary}.
+	 */
+	String SUMMARY = "new org.springframework.samples.petclinic.owner.OwnerSummary(owner.id, owner.firstName, "
+			+ "owner.lastName, owner.address, owner.city, owner.telephone)";
+
+	/**
+	 * JPQL selecting the {@link SearchTerms} of owners, to be followed by a WHERE and
+	 * ORDER BY clause.
+	 */
+	String SEARCH_TERMS = "SELECT owner.id AS id, owner.firstName AS firstName, owner.lastName AS lastName, "
+			+ "owner.city AS city, owner.telephone AS telephone, pet.name AS petName "
+			+ "FROM Owner owner LEFT JOIN owner.pets pet ";
+
+	/**
+	 * JPQL selecting the {@link PetSummary} of pets, to be followed by a WHERE clause.
+	 */
+	String PET_SUMMARY = "SELECT pet.id AS id, pet.name AS name, pet.birthDate AS birthDate, type.name AS type "
+			+ "FROM Pet pet LEFT JOIN pet.type type ";
+
+	/**
+	 * Retrieve all {@link PetType}s from the data store. The result is kept in the query
+	 * cache until the <code>types</code> table changes.
 	 * @return a Collection of {@link PetType}s.
 	 */
+	@Transactional(readOnly = true)
 	@Query("SELECT ptype FROM PetType ptype ORDER BY ptype.name")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	List<PetType> findPetTypes();
 
 	/**
-	 * Retrieve {@link Owner}s from the data store by last name, returning all owners
-	 * whose last name <i>starts</i> with the given name.
+	 * Retrieve the first {@link OwnerSummary} views of the {@link Owner}s whose last name
+	 * <i>starts</i> with the given name, ordered by last name and id. Only the owner
+	 * columns are selected; use {@link #loadPetNames(Collection)} to add the pet names.
+	 * @param lastName Value to search for
+	 * @param limit the maximum number of summaries to return
+	 * @return the matching {@link OwnerSummary}s
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT " + SUMMARY + " FROM Owner owner WHERE owner.lastName LIKE :lastName% "
+			+ "ORDER BY owner.lastName, owner.id")
+	List<OwnerSummary> findFirstSummariesByLastNameStartingWith(@Param("lastName") String lastName, Limit limit);
+
+	/**
+	 * Retrieve the {@link OwnerSummary} views following the given (last name, id) key, in
+	 * ascending order.
+	 * @param lastName Value to search for
+	 * @param afterLastName the last name of the key
+	 * @param afterId the id of the key
+	 * @param limit the maximum number of summaries to return
+	 * @return the matching {@link OwnerSummary}s
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT " + SUMMARY + " FROM Owner owner WHERE owner.lastName LIKE :lastName% "
+			+ "AND (owner.lastName > :afterLastName OR (owner.lastName = :afterLastName AND owner.id > :afterId)) "
+			+ "ORDER BY owner.lastName, owner.id")
+	List<OwnerSummary> findSummariesByLastNameStartingWithAfter(@Param("lastName") String lastName,
+			@Param("afterLastName") String afterLastName, @Param("afterId") Integer afterId, Limit limit);
+
+	/**
+	 * Retrieve the {@link OwnerSummary} views preceding the given (last name, id) key, in
+	 * <i>descending</i> order.
 	 * @param lastName Value to search for
-	 * @return a Collection of matching {@link Owner}s (or an empty Collection if none
-	 * found)
+	 * @param beforeLastName the last name of the key
+	 * @param beforeId the id of the key
+	 * @param limit the maximum number of summaries to return
+	 * @return the matching {@link OwnerSummary}s
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT " + SUMMARY + " FROM Owner owner WHERE owner.lastName LIKE :lastName% "
+			+ "AND (owner.lastName < :beforeLastName OR (owner.lastName = :beforeLastName AND owner.id < :beforeId)) "
+			+ "ORDER BY owner.lastName DESC, owner.id DESC")
+	List<OwnerSummary> findSummariesByLastNameStartingWithBefore(@Param("lastName") String lastName,
+			@Param("beforeLastName") String beforeLastName, @Param("beforeId") Integer beforeId, Limit limit);
+
+	/**
+	 * Retrieve a page of {@link OwnerSummary} views, including pet names, of the
+	 * {@link Owner}s whose last name <i>starts</i> with the given name using keyset
+	 * pagination.
+	 * @param lastName Value to search for
+	 * @param cursor the position to start from, or {@literal null} for the first page
+	 * @param size the page size
+	 * @return the page of matching {@link OwnerSummary}s
+	 */
+	@Transactional(readOnly = true)
+	default KeysetPage<OwnerSummary> findSummariesByLastNameStartingWith(String lastName, KeysetCursor cursor,
+			int size) {
+		Limit limit = Limit.of(size + 1);
+		List<OwnerSummary> fetched;
+		if (cursor == null) {
+			fetched = findFirstSummariesByLastNameStartingWith(lastName, limit);
+		}
+		else if (cursor.isForward()) {
+			fetched = findSummariesByLastNameStartingWithAfter(lastName, cursor.getLastName(), cursor.getId(), limit);
+		}
+		else {
+			fetched = findSummariesByLastNameStartingWithBefore(lastName, cursor.getLastName(), cursor.getId(), limit);
+		}
+		KeysetPage<OwnerSummary> page = KeysetPage.of(fetched, cursor, size, OwnerSummary::getLastName,
+				OwnerSummary::getId);
+		loadPetNames(page.getContent());
+		return page;
+	}
+
+	/**
+	 * Retrieve the names of the pets belonging to the given owners, without loading the
+	 * {@link Pet} entities.
+	 * @param ownerIds the ids of the owners
+	 * @return one {@link PetName} per pet, ordered by pet name
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT owner.id AS ownerId, pet.name AS name FROM Owner owner JOIN owner.pets pet "
+			+ "WHERE owner.id IN :ownerIds ORDER BY pet.name")
+	List<PetName> findPetNamesByOwnerIdIn(@Param("ownerIds") Collection<Integer> ownerIds);
+
+	/**
+	 * Populate the pet names of the given {@link OwnerSummary}s with a single query.
+	 * @param summaries the summaries to populate
+	 * @return the given summaries
 	 */
-	Page<Owner> findByLastNameStartingWith(String lastName, Pageable pageable);
+	@Transactional(readOnly = true)
+	default <T extends Collection<OwnerSummary>> T loadPetNames(T summaries) {
+		if (summaries.isEmpty()) {
+			return summaries;
+		}
+		Map<Integer, OwnerSummary> byId = summaries.stream()
+			.collect(Collectors.toMap(OwnerSummary::getId, Function.identity()));
+		for (PetName petName : findPetNamesByOwnerIdIn(byId.keySet())) {
+			byId.get(petName.getOwnerId()).getPets().add(petName.getName());
+		}
+		return summaries;
+	}
 
 	/**
 	 * Retrieve an {@link Owner} from the data store by id.
@@ -69,9 +200,193 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 */
 	Optional<Owner> findById(@Nonnull Integer id);
 
+	/**
+	 * Retrieve an {@link OwnerSummary} view of an {@link Owner} by id, without loading
+	 * the owner's pets.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link OwnerSummary} if found, or an
+	 * empty {@link Optional} if not found.
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT " + SUMMARY + " FROM Owner owner WHERE owner.id = :id")
+	Optional<OwnerSummary> findSummaryById(@Param("id") Integer id);
+
+	/**
+	 * Retrieve the version of an {@link Owner} by id, without loading the owner. The
+	 * version changes whenever the owner, one of its pets or one of their visits changes,
+	 * see {@link #saveAndIncrementVersion(Owner)}.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the version if the owner exists, or an empty
+	 * {@link Optional} if not found.
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT owner.version FROM Owner owner WHERE owner.id = :id")
+	Optional<Integer> findVersionById(@Param("id") Integer id);
+
+	/**
+	 * Save an {@link Owner} together with its pets and make sure the owner's version
+	 * changes exactly once in the same transaction. Hibernate only increments the version
+	 * when the owner row or its pets collection changes; editing an existing pet must
+	 * still change the version of the whole aggregate, so then it is incremented through
+	 * {@link #incrementVersion(Owner)}.
+	 * @param owner the owner to save
+	 * @return the saved owner
+	 */
+	@Transactional
+	default Owner saveAndIncrementVersion(Owner owner) {
+		Integer version = owner.getVersion();
+		Owner saved = saveAndFlush(owner);
+		if (version != null && version.equals(saved.getVersion())) {
+			incrementVersion(saved);
+		}
+		return saved;
+	}
+
+	/**
+	 * Retrieve a {@link Pet} by its id and the id of its {@link Owner}, without loading
+	 * the owner or the owner's other pets.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @return an {@link Optional} containing the {@link Pet} if the owner has a pet with
+	 * the given id, or an empty {@link Optional} otherwise
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT pet FROM Owner owner JOIN owner.pets pet LEFT JOIN FETCH pet.type "
+			+ "WHERE owner.id = :ownerId AND pet.id = :petId")
+	Optional<Pet> findPet(@Param("ownerId") Integer ownerId, @Param("petId") Integer petId);
+
+	/**
+	 * Retrieve the pets of an {@link Owner} as {@link PetSummary} projections, ordered by
+	 * name, without loading the {@link Pet} entities or their visits.
+	 * @param ownerId the id of the owner
+	 * @return the pets of the owner, empty if the owner has no pets or does not exist
+	 */
+	@Transactional(readOnly = true)
+	@Query(PET_SUMMARY + "WHERE pet.ownerId = :ownerId ORDER BY pet.name")
+	List<PetSummary> findPetSummariesByOwnerId(@Param("ownerId") Integer ownerId);
+
+	/**
+	 * Retrieve a pet of an {@link Owner} as a {@link PetSummary} projection, without
+	 * loading the {@link Pet} entity or its visits.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @return an {@link Optional} containing the pet if the owner has a pet with the
+	 * given id, or an empty {@link Optional} otherwise
+	 */
+	@Transactional(readOnly = true)
+	@Query(PET_SUMMARY + "WHERE pet.ownerId = :ownerId AND pet.id = :petId")
+	Optional<PetSummary> findPetSummary(@Param("ownerId") Integer ownerId, @Param("petId") Integer petId);
+
+	/**
+	 * Stream all {@link Owner}s with their {@link Pet}s and {@link Visit}s as flat
+	 * {@link OwnerExportRow}s, ordered by owner, pet and visit id. The rows are read
+	 * through a database cursor, a fetch size at a time, and are never attached to the
+	 * persistence context, so the stream can be consumed in constant memory whatever the
+	 * size of the tables. The stream must be consumed and closed within a transaction.
+	 * @return the export rows
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT new org.springframework.samples.petclinic.owner.OwnerExportRow(owner.id, owner.firstName, "
+			+ "owner.lastName, owner.address, owner.city, owner.telephone, pet.id, pet.name, pet.birthDate, "
+			+ "type.name, visit.id, visit.date, visit.description) "
+			+ "FROM Owner owner LEFT JOIN owner.pets pet LEFT JOIN pet.type type LEFT JOIN pet.visits visit "
+			+ "ORDER BY owner.id, pet.id, visit.id")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	Stream<OwnerExportRow> streamExportRows();
+
+	/**
+	 * Retrieve the {@link OwnerSummary} views, including pet names, of the {@link Owner}s
+	 * with the given ids, ordered by last name and id.
+	 * @param ids the ids of the owners
+	 * @return the {@link OwnerSummary}s of the owners that exist
+	 */
+	@Transactional(readOnly = true)
+	default List<OwnerSummary> findSummariesByIdIn(Collection<Integer> ids) {
+		return ids.isEmpty() ? List.of() : loadPetNames(findSummariesWithoutPetsByIdIn(ids));
+	}
+
+	/**
+	 * Retrieve the {@link OwnerSummary} views, without pet names, of the {@link Owner}s
+	 * with the given ids, ordered by last name and id.
+	 * @param ids the ids of the owners
+	 * @return the {@link OwnerSummary}s of the owners that exist
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT " + SUMMARY + " FROM Owner owner WHERE owner.id IN :ids ORDER BY owner.lastName, owner.id")
+	List<OwnerSummary> findSummariesWithoutPetsByIdIn(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Stream the searchable fields of all {@link Owner}s, one {@link SearchTerms} row per
+	 * pet, ordered by owner id. The stream must be consumed and closed within a
+	 * transaction.
+	 * @return the search terms of all owners
+	 * @see OwnerSearchIndex
+	 */
+	@Transactional(readOnly = true)
+	@Query(SEARCH_TERMS + "ORDER BY owner.id")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	Stream<SearchTerms> streamSearchTerms();
+
+	/**
+	 * Retrieve the searchable fields of the {@link Owner}s with the given ids, one
+	 * {@link SearchTerms} row per pet, ordered by owner id.
+	 * @param ownerIds the ids of the owners
+	 * @return the search terms of the owners that exist
+	 * @see OwnerSearchIndex
+	 */
+	@Transactional(readOnly = true)
+	@Query(SEARCH_TERMS + "WHERE owner.id IN :ownerIds ORDER BY owner.id")
+	List<SearchTerms> findSearchTermsByOwnerIdIn(@Param("ownerIds") Collection<Integer> ownerIds);
+
 	/**
 	 * Returns all the owners from data store
 	 **/
 	Page<Owner> findAll(Pageable pageable);
 
+	/**
+	 * Projection of a pet name together with the id of its owner.
+	 */
+	interface PetName {
+
+		Integer getOwnerId();
+
+		String getName();
+
+	}
+
+	/**
+	 * Projection of a pet with the name of its type.
+	 */
+	interface PetSummary {
+
+		Integer getId();
+
+		String getName();
+
+		LocalDate getBirthDate();
+
+		String getType();
+
+	}
+
+	/**
+	 * Projection of the searchable fields of an owner together with the name of one of
+	 * its pets.
+	 */
+	interface SearchTerms {
+
+		Integer getId();
+
+		String getFirstName();
+
+		String getLastName();
+
+		String getCity();
+
+		String getTelephone();
+
+		String getPetName();
+
+	}
+
 }
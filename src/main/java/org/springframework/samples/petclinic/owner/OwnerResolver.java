@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Request-scoped access to {@link Owner} aggregates shared by the handlers of the owner
+ * package. The <code>@ModelAttribute</code> methods and the handler methods of a single
+ * request often need the same owner; it is loaded from the data store only once per
+ * request.
+ */
+@Component
+@RequestScope
+class OwnerResolver {
+
+	private final OwnerRepository owners;
+
+	private final Map<Integer, Owner> resolved = new HashMap<>();
+
+	OwnerResolver(OwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	/**
+	 * Return the {@link Owner} with the given id, loading it on first access within the
+	 * current request.
+	 * @param ownerId the id of the owner
+	 * @return the owner, never {@literal null}
+	 * @throws IllegalArgumentException if no such owner exists
+	 */
+	Owner getOwner(int ownerId) {
+		return this.resolved.computeIfAbsent(ownerId,
+				id -> this.owners.findById(id)
+					.orElseThrow(() -> new IllegalArgumentException(
+							"Owner not found with id: " + ownerId + ". Please ensure the ID is correct ")));
+	}
+
+	/**
+	 * Return a summary of the {@link Owner} with the given id, for views that only show
+	 * the owner's name and contact details.
+	 * @param ownerId the id of the owner
+	 * @return the owner summary, never {@literal null}
+	 * @throws IllegalArgumentException if no such owner exists
+	 */
+	OwnerSummary getOwnerSummary(int ownerId) {
+		return this.owners.findSummaryById(ownerId)
+			.orElseThrow(() -> new IllegalArgumentException(
+					"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
+	}
+
+	/**
+	 * Return the {@link Pet} with the given id belonging to the given owner. The pet is
+	 * loaded on its own, without the owner's other pets, and is therefore a distinct
+	 * instance from the one held by {@link #getOwner(int)}.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @return the pet, never {@literal null}
+	 * @throws IllegalArgumentException if the owner has no such pet
+	 */
+	Pet getPet(int ownerId, int petId) {
+		return this.owners.findPet(ownerId, petId)
+			.orElseThrow(() -> new IllegalArgumentException("Pet not found with id: " + petId + " for owner with id: "
+					+ ownerId + ". Please ensure the ID is correct "));
+	}
+
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.model.KeysetCursor;
+import org.springframework.samples.petclinic.model.KeysetPage;
+import org.springframework.samples.petclinic.owner.OwnerDetails.PetDetails;
+import org.springframework.samples.petclinic.owner.OwnerDetails.VisitDetails;
+import org.springframework.samples.petclinic.owner.OwnerRepository.PetSummary;
+import org.springframework.samples.petclinic.system.BinaryRepresentationConfiguration;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON API for owners, their pets and visits, for integrations that would otherwise
+ * scrape the HTML pages. Responses are built from projections, {@link OwnerSummary} and
+ * {@link PetSummary}, and from visits fetched a page at a time, so no entity graph is
+ * ever loaded or serialized.
+ * <p>
+ * Every read accepts a sparse fieldset, <code>fields=id,lastName</code>, naming the
+ * top-level properties to return. Pets, and the visits of pets, are only queried when
+ * they are among the requested fields. Lists are paged with keyset cursors, the next and
+ * previous pages being linked from the <code>Link</code> header.
+ * <p>
+ * Responses are JSON, or CBOR or Smile depending on the <code>Accept</code> header, see
+ * {@link BinaryRepresentationConfiguration}.
+ */
+@RestController
+@RequestMapping(path = "/api/owners", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+		BinaryRepresentationConfiguration.APPLICATION_SMILE_VALUE })
+class OwnerRestController {
+
+	private static final int MAX_SEARCH_RESULTS = 50;
+
+	private final OwnerRepository owners;
+
+	private final VisitRepository visits;
+
+	private final OwnerSearchIndex searchIndex;
+
+	private final ApplicationEventPublisher events;
+
+	private final ObjectMapper objectMapper;
+
+	private final int recentVisits;
+
+	private final int ownerPageSize;
+
+	private final int visitPageSize;
+
+	OwnerRestController(OwnerRepository owners, VisitRepository visits, OwnerSearchIndex searchIndex,
+			ApplicationEventPublisher events, ObjectMapper objectMapper,
+			@Value("${petclinic.visits.recent:5}") int recentVisits,
+			@Value("${petclinic.owners.page-size:20}") int ownerPageSize,
+			@Value("${petclinic.visits.page-size:20}") int visitPageSize) {
+		this.owners = owners;
+		this.visits = visits;
+		this.searchIndex = searchIndex;
+		this.events = events;
+		this.objectMapper = objectMapper;
+		this.recentVisits = recentVisits;
+		this.ownerPageSize = ownerPageSize;
+		this.visitPageSize = visitPageSize;
+	}
+
+	/**
+	 * Find owners by the start of their last name, a page at a time, or, when
+	 * <code>q</code> is given, through the {@link OwnerSearchIndex} like
+	 * <code>/owners/search</code>. Search results come in pages of
+	 * {@value #MAX_SEARCH_RESULTS} in the order of their ids, each page ordered by last
+	 * name, and are continued with <code>after</code>, the id of the last owner of the
+	 * previous page. Either way, the next page is linked in the <code>Link</code> header.
+	 * @param lastName Value to search for, all owners if empty
+	 * @param cursor the cursor of the page, the first page if empty
+	 * @param query the words to search for
+	 * @param after the id after which to continue a search, if any
+	 * @param fields the properties of the owners to return, all if empty
+	 * @return the matching owners, ordered by last name and id
+	 */
+	@GetMapping
+	public ResponseEntity<Object> findOwners(@RequestParam(defaultValue = "") String lastName,
+			@RequestParam(required = false) String cursor, @RequestParam(name = "q", required = false) String query,
+			@RequestParam(required = false) Integer after, @RequestParam(required = false) Set<String> fields) {
+		if (query != null) {
+			List<Integer> ids = this.searchIndex.search(query, after, MAX_SEARCH_RESULTS + 1);
+			ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+			if (ids.size() > MAX_SEARCH_RESULTS) {
+				ids = ids.subList(0, MAX_SEARCH_RESULTS);
+				response.header(HttpHeaders.LINK, link("after", String.valueOf(ids.get(ids.size() - 1)), "next"));
+			}
+			return response.body(select(this.owners.findSummariesByIdIn(ids), fields));
+		}
+		KeysetPage<OwnerSummary> page = this.owners.findSummariesByLastNameStartingWith(lastName,
+				KeysetCursor.decode(cursor), this.ownerPageSize);
+		List<String> links = new ArrayList<>();
+		if (page.hasNext()) {
+			links.add(link("cursor", page.getNextCursor().encode(), "next"));
+		}
+		if (page.hasPrevious()) {
+			links.add(link("cursor", page.getPreviousCursor().encode(), "prev"));
+		}
+		return ResponseEntity.ok()
+			.header(HttpHeaders.LINK, links.toArray(String[]::new))
+			.body(select(page.getContent(), fields));
+	}
+
+	/**
+	 * Show an owner with its pets and their most recent visits.
+	 * @param ownerId the id of the owner
+	 * @param fields the properties of the owner to return, all if empty
+	 * @return the owner, or <code>404 Not Found</code>
+	 */
+	@GetMapping("/{ownerId}")
+	public ResponseEntity<Object> showOwner(@PathVariable("ownerId") int ownerId,
+			@RequestParam(required = false) Set<String> fields) {
+		return this.owners.findSummaryById(ownerId).<ResponseEntity<Object>>map((owner) -> {
+			List<PetDetails> pets = isSelected("pets", fields) ? findPets(ownerId, null) : List.of();
+			OwnerDetails details = new OwnerDetails(owner.getId(), owner.getFirstName(), owner.getLastName(),
+					owner.getAddress(), owner.getCity(), owner.getTelephone(), pets);
+			return ResponseEntity.ok(select(details, fields));
+		}).orElseGet(() -> ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Show the pets of an owner with their most recent visits.
+	 * @param ownerId the id of the owner
+	 * @param fields the properties of the pets to return, all if empty
+	 * @return the pets ordered by name, or <code>404 Not Found</code>
+	 */
+	@GetMapping("/{ownerId}/pets")
+	public ResponseEntity<Object> showPets(@PathVariable("ownerId") int ownerId,
+			@RequestParam(required = false) Set<String> fields) {
+		List<PetDetails> pets = findPets(ownerId, fields);
+		if (pets.isEmpty() && this.owners.findVersionById(ownerId).isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(select(pets, fields));
+	}
+
+	/**
+	 * Show a pet with its most recent visits.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @param fields the properties of the pet to return, all if empty
+	 * @return the pet, or <code>404 Not Found</code>
+	 */
+	@GetMapping("/{ownerId}/pets/{petId}")
+	public ResponseEntity<Object> showPet(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
+			@RequestParam(required = false) Set<String> fields) {
+		return this.owners.findPetSummary(ownerId, petId).<ResponseEntity<Object>>map((pet) -> {
+			VisitPage visits = isSelected("visits", fields)
+					? this.visits.findPageByPetId(pet.getId(), null, null, this.recentVisits) : null;
+			return ResponseEntity.ok(select(toDetails(pet, visits), fields));
+		}).orElseGet(() -> ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Show the visits of a pet, most recent first, a page at a time.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @param beforeDate the date of the oldest visit of the previous page, if any
+	 * @param beforeId the id of the oldest visit of the previous page, if any
+	 * @return the visits, or <code>404 Not Found</code>
+	 */
+	@GetMapping("/{ownerId}/pets/{petId}/visits")
+	public ResponseEntity<List<VisitDetails>> showVisits(@PathVariable("ownerId") int ownerId,
+			@PathVariable("petId") int petId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate,
+			@RequestParam(required = false) Integer beforeId) {
+		if (this.owners.findPetSummary(ownerId, petId).isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+		VisitPage page = this.visits.findPageByPetId(petId, beforeDate, beforeId, this.visitPageSize);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (page.hasOlder()) {
+			Visit oldest = page.getOldest();
+			String next = ServletUriComponentsBuilder.fromCurrentRequest()
+				.replaceQueryParam("beforeDate", oldest.getDate())
+				.replaceQueryParam("beforeId", oldest.getId())
+				.toUriString();
+			response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+		}
+		return response.body(toDetails(page));
+	}
+
+	/**
+	 * Book a visit for a pet. The visit date defaults to the current date.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @param request the date and description of the visit
+	 * @return the booked visit with <code>201 Created</code>,
+	 * <code>400 Bad Request</code> without a description or <code>404 Not Found</code>
+	 */
+	@PostMapping(path = "/{ownerId}/pets/{petId}/visits", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<VisitDetails> addVisit(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
+			@RequestBody VisitDetails request) {
+		if (!StringUtils.hasText(request.description())) {
+			return ResponseEntity.badRequest().build();
+		}
+		if (this.owners.findPetSummary(ownerId, petId).isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+		Visit visit = new Visit();
+		if (request.date() != null) {
+			visit.setDate(request.date());
+		}
+		visit.setDescription(request.description());
+		visit.setPetId(petId);
+		Visit saved = this.visits.saveAndIncrementOwnerVersion(visit);
+		this.events.publishEvent(OwnersChangedEvent.of(ownerId));
+		return ResponseEntity.status(HttpStatus.CREATED)
+			.body(new VisitDetails(saved.getId(), saved.getDate(), saved.getDescription()));
+	}
+
+	private List<PetDetails> findPets(int ownerId, Set<String> fields) {
+		List<PetSummary> summaries = this.owners.findPetSummariesByOwnerId(ownerId);
+		Map<Integer, VisitPage> recentVisits = isSelected("visits", fields) ? this.visits
+			.findLatestPagesByPetIdIn(summaries.stream().map(PetSummary::getId).toList(), this.recentVisits) : Map.of();
+		List<PetDetails> pets = new ArrayList<>();
+		for (PetSummary pet : summaries) {
+			pets.add(toDetails(pet, recentVisits.get(pet.getId())));
+		}
+		return pets;
+	}
+
+	private static PetDetails toDetails(PetSummary pet, VisitPage visits) {
+		return new PetDetails(pet.getId(), pet.getName(), pet.getBirthDate(), pet.getType(),
+				(visits != null) ? toDetails(visits) : List.of());
+	}
+
+	private static List<VisitDetails> toDetails(VisitPage page) {
+		return page.getContent()
+			.stream()
+			.map((visit) -> new VisitDetails(visit.getId(), visit.getDate(), visit.getDescription()))
+			.toList();
+	}
+
+	private static boolean isSelected(String field, Set<String> fields) {
+		return CollectionUtils.isEmpty(fields) || fields.contains(field);
+	}
+
+	/**
+	 * Reduce the given value, or each element of the given list, to the requested fields.
+	 * @param value the value to return
+	 * @param fields the names of the top-level properties to keep, all if {@literal null}
+	 * or empty, as bound from <code>fields=</code>
+	 * @return the value itself if all fields are requested, its reduced JSON tree
+	 * otherwise
+	 */
+	private Object select(Object value, Set<String> fields) {
+		if (CollectionUtils.isEmpty(fields)) {
+			return value;
+		}
+		JsonNode tree = this.objectMapper.valueToTree(value);
+		for (JsonNode node : tree.isArray() ? tree : List.of(tree)) {
+			((ObjectNode) node).retain(fields);
+		}
+		return tree;
+	}
+
+	private static String link(String param, String value, String rel) {
+		String uri = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam(param, value).toUriString();
+		return "<" + uri + ">; rel=\"" + rel + "\"";
+	}
+
+}
@@ -0,0 +1,454 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.samples.petclinic.owner.OwnerRepository.SearchTerms;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory inverted index over the searchable fields of all {@link Owner}s: first and
+ * last name, city, telephone number and the names of the owner's pets.
+ * <p>
+ * Every field is split into lower-case words (telephone numbers into their digits) and
+ * each word maps to the sorted ids of the owners having it, in a sorted map so that all
+ * words starting with a prefix are found with a range lookup. A query matches the owners
+ * for which each of its words is the prefix of one of their words; the data store is only
+ * queried afterwards, for the matching ids.
+ * <p>
+ * Last names are also indexed by {@link LastNameKeys}, phonetic and deletion keys for
+ * finding owners whose last name sounds like or is spelled close to a misspelled one.
+ * <p>
+ * The index is built on startup and kept up to date by {@link OwnersChangedEvent}s, which
+ * make it reload the changed owners. Lookups never block; updates are serialized.
+ */
+@Component
+public class OwnerSearchIndex implements SmartInitializingSingleton {
+
+	private final OwnerRepository owners;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private volatile Entries entries = new Entries();
+
+	public OwnerSearchIndex(OwnerRepository owners, PlatformTransactionManager transactionManager) {
+		this.owners = owners;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		rebuild();
+	}
+
+	/**
+	 * Return the ids of the owners matching the given query, in ascending order.
+	 * @param query the words to search for, separated by white space or punctuation
+	 * @param limit the maximum number of ids to return
+	 * @return the matching owner ids, empty if the query has no words
+	 */
+	public List<Integer> search(String query, int limit) {
+		return search(query, null, limit);
+	}
+
+	/**
+	 * Return the ids of the owners matching the given query that are greater than the
+	 * given one, in ascending order. Pages of matches are fetched by passing the last id
+	 * of the previous page.
+	 * @param query the words to search for, separated by white space or punctuation
+	 * @param after the id to continue after, {@literal null} to start with the first
+	 * match
+	 * @param limit the maximum number of ids to return
+	 * @return the matching owner ids, empty if the query has no words
+	 */
+	public List<Integer> search(String query, Integer after, int limit) {
+		Entries entries = this.entries;
+		List<List<Postings>> postings = new ArrayList<>();
+		for (String prefix : words(query)) {
+			postings.add(List.copyOf(entries.index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()));
+		}
+		if (postings.isEmpty()) {
+			return List.of();
+		}
+		// Walk the ids of the most selective prefix in order, checking the others
+		postings.sort(Comparator.comparingInt(OwnerSearchIndex::count));
+		List<NavigableSet<Integer>> first = postings.get(0)
+			.stream()
+			.map((word) -> (after != null) ? word.ids.tailSet(after, false) : word.ids)
+			.toList();
+		Iterable<Integer> candidates = (first.size() == 1) ? first.get(0) : union(first);
+		List<Integer> matches = new ArrayList<>();
+		for (Integer id : candidates) {
+			if (matchesAll(id, postings.subList(1, postings.size()))) {
+				matches.add(id);
+				if (matches.size() == limit) {
+					break;
+				}
+			}
+		}
+		return matches;
+	}
+
+	private static int count(List<Postings> words) {
+		int size = 0;
+		for (Postings word : words) {
+			size += word.size;
+		}
+		return size;
+	}
+
+	/**
+	 * Merge the given sorted sets into a single ascending sequence without duplicates,
+	 * lazily so that only as many ids are visited as are consumed.
+	 */
+	private static Iterable<Integer> union(List<NavigableSet<Integer>> sets) {
+		return () -> new Iterator<>() {
+
+			private final PriorityQueue<PeekingIterator> heads = new PriorityQueue<>(
+					Comparator.comparing(PeekingIterator::peek));
+
+			private Integer last;
+
+			{
+				for (NavigableSet<Integer> ids : sets) {
+					PeekingIterator head = new PeekingIterator(ids.iterator());
+					if (head.peek() != null) {
+						this.heads.add(head);
+					}
+				}
+				advance();
+			}
+
+			@Override
+			public boolean hasNext() {
+				return !this.heads.isEmpty();
+			}
+
+			@Override
+			public Integer next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				this.last = this.heads.peek().peek();
+				advance();
+				return this.last;
+			}
+
+			private void advance() {
+				while (!this.heads.isEmpty() && this.heads.peek().peek().equals(this.last)) {
+					PeekingIterator head = this.heads.poll();
+					if (head.next() != null) {
+						this.heads.add(head);
+					}
+				}
+			}
+
+		};
+	}
+
+	private static boolean matchesAll(Integer id, List<List<Postings>> postings) {
+		for (List<Postings> words : postings) {
+			if (words.stream().noneMatch((word) -> word.ids.contains(id))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the ids of the owners whose last name sounds like the given one or is one
+	 * edit away from it (a letter inserted, deleted, replaced or swapped with its
+	 * neighbor), closest first. Only the candidates sharing a
+	 * {@link LastNameKeys#keys(String) key} with the given name are compared. The
+	 * deletion keys guarantee that all names one edit away share a key; names further
+	 * away are only found when they have the same Soundex code.
+	 * @param lastName the possibly misspelled last name
+	 * @param limit the maximum number of ids to return
+	 * @return the matching owner ids, ordered by edit distance, then by whether the last
+	 * name sounds alike, then by last name and id
+	 */
+	public List<Integer> searchSimilarLastNames(String lastName, int limit) {
+		String query = LastNameKeys.normalize(lastName);
+		if (query.isEmpty()) {
+			return List.of();
+		}
+		Entries entries = this.entries;
+		String soundex = LastNameKeys.soundex(query);
+		List<SimilarLastName> similar = new ArrayList<>();
+		Set<String> compared = new HashSet<>();
+		for (String key : LastNameKeys.keys(query)) {
+			for (String name : entries.lastNamesByKey.getOrDefault(key, Set.of())) {
+				if (compared.add(name)) {
+					int distance = LastNameKeys.distance(query, name);
+					boolean soundsAlike = soundex.equals(LastNameKeys.soundex(name));
+					if (distance <= 1 || soundsAlike) {
+						similar.add(new SimilarLastName(name, distance, soundsAlike));
+					}
+				}
+			}
+		}
+		similar.sort(Comparator.comparingInt(SimilarLastName::distance)
+			.thenComparing(SimilarLastName::soundsAlike, Comparator.reverseOrder())
+			.thenComparing(SimilarLastName::name));
+		List<Integer> matches = new ArrayList<>();
+		for (SimilarLastName name : similar) {
+			for (Integer id : entries.byLastName.getOrDefault(name.name(), Collections.emptyNavigableSet())) {
+				matches.add(id);
+				if (matches.size() == limit) {
+					return matches;
+				}
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Return the number of owners in the index.
+	 * @return the number of indexed owners
+	 */
+	public int size() {
+		return this.entries.words.size();
+	}
+
+	/**
+	 * Reload all owners from the data store into a new index, which replaces the current
+	 * one at once when complete; searches use the current index in the meantime.
+	 */
+	public synchronized void rebuild() {
+		Entries rebuilt = new Entries();
+		this.transactionTemplate.executeWithoutResult((status) -> {
+			try (Stream<SearchTerms> terms = this.owners.streamSearchTerms()) {
+				rebuilt.add(terms.iterator());
+			}
+		});
+		this.entries = rebuilt;
+	}
+
+	/**
+	 * Reload the changed owners from the data store.
+	 * @param event the event naming the changed owners
+	 */
+	@EventListener
+	public synchronized void onOwnersChanged(OwnersChangedEvent event) {
+		Entries entries = this.entries;
+		for (Integer ownerId : event.ownerIds()) {
+			entries.remove(ownerId);
+		}
+		entries.add(this.owners.findSearchTermsByOwnerIdIn(event.ownerIds()).iterator());
+	}
+
+	/**
+	 * Split the given text into lower-case words at everything but letters and digits.
+	 * Digits separated only by punctuation, as in telephone numbers, form a single word.
+	 */
+	static Set<String> words(String text) {
+		if (text == null) {
+			return Set.of();
+		}
+		Set<String> words = new LinkedHashSet<>();
+		for (String part : text.toLowerCase(Locale.ROOT).split("\\s+")) {
+			if (!part.isEmpty() && part.chars().anyMatch(Character::isDigit)
+					&& part.chars().allMatch((c) -> !Character.isLetter(c))) {
+				words.add(part.replaceAll("\\D", ""));
+				continue;
+			}
+			for (String word : part.split("[^\\p{L}\\p{N}]+")) {
+				if (!word.isEmpty()) {
+					words.add(word);
+				}
+			}
+		}
+		return words;
+	}
+
+	/**
+	 * The maps of an index. Searches read them concurrently; updates are serialized by
+	 * the enclosing index.
+	 */
+	private static final class Entries {
+
+		private final ConcurrentSkipListMap<String, Postings> index = new ConcurrentSkipListMap<>();
+
+		private final Map<Integer, Set<String>> words = new ConcurrentHashMap<>();
+
+		private final Map<Integer, String> lastNames = new ConcurrentHashMap<>();
+
+		private final Map<String, NavigableSet<Integer>> byLastName = new ConcurrentHashMap<>();
+
+		private final Map<String, Set<String>> lastNamesByKey = new ConcurrentHashMap<>();
+
+		/**
+		 * Add the owners of the given rows, which must be ordered by owner id.
+		 */
+		private void add(Iterator<SearchTerms> rows) {
+			Integer ownerId = null;
+			String lastName = null;
+			Set<String> ownerWords = null;
+			while (rows.hasNext()) {
+				SearchTerms row = rows.next();
+				if (!row.getId().equals(ownerId)) {
+					if (ownerId != null) {
+						put(ownerId, lastName, ownerWords);
+					}
+					ownerId = row.getId();
+					lastName = row.getLastName();
+					ownerWords = new HashSet<>();
+					ownerWords.addAll(words(row.getFirstName()));
+					ownerWords.addAll(words(row.getLastName()));
+					ownerWords.addAll(words(row.getCity()));
+					ownerWords.addAll(words(row.getTelephone()));
+				}
+				ownerWords.addAll(words(row.getPetName()));
+			}
+			if (ownerId != null) {
+				put(ownerId, lastName, ownerWords);
+			}
+		}
+
+		private void put(Integer ownerId, String lastName, Set<String> ownerWords) {
+			this.words.put(ownerId, Set.copyOf(ownerWords));
+			for (String word : ownerWords) {
+				this.index.computeIfAbsent(word, (key) -> new Postings()).add(ownerId);
+			}
+			String name = LastNameKeys.normalize(lastName);
+			if (!name.isEmpty()) {
+				this.lastNames.put(ownerId, name);
+				this.byLastName.computeIfAbsent(name, (key) -> {
+					for (String lastNameKey : LastNameKeys.keys(name)) {
+						this.lastNamesByKey.computeIfAbsent(lastNameKey, (k) -> ConcurrentHashMap.newKeySet())
+							.add(name);
+					}
+					return new ConcurrentSkipListSet<>();
+				}).add(ownerId);
+			}
+		}
+
+		private void remove(Integer ownerId) {
+			Set<String> ownerWords = this.words.remove(ownerId);
+			if (ownerWords != null) {
+				for (String word : ownerWords) {
+					Postings postings = this.index.get(word);
+					if (postings != null && postings.remove(ownerId)) {
+						this.index.remove(word, postings);
+					}
+				}
+			}
+			String name = this.lastNames.remove(ownerId);
+			if (name != null && removeFrom(this.byLastName, name, ownerId)) {
+				for (String lastNameKey : LastNameKeys.keys(name)) {
+					removeFrom(this.lastNamesByKey, lastNameKey, name);
+				}
+			}
+		}
+
+		/**
+		 * Remove the given value from the set mapped to the given key, and the key if the
+		 * set is left empty.
+		 * @return whether the key was removed
+		 */
+		private static <K, V> boolean removeFrom(Map<K, ? extends Set<V>> map, K key, V value) {
+			Set<V> values = map.get(key);
+			if (values != null) {
+				values.remove(value);
+				if (values.isEmpty()) {
+					return map.remove(key, values);
+				}
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * The sorted ids of the owners having a word, with their number kept alongside:
+	 * {@link ConcurrentSkipListSet#size()} walks the whole set.
+	 */
+	private static final class Postings {
+
+		private final ConcurrentSkipListSet<Integer> ids = new ConcurrentSkipListSet<>();
+
+		private volatile int size;
+
+		void add(Integer id) {
+			if (this.ids.add(id)) {
+				this.size++;
+			}
+		}
+
+		/**
+		 * Remove the given id.
+		 * @return whether no ids are left
+		 */
+		boolean remove(Integer id) {
+			if (this.ids.remove(id)) {
+				this.size--;
+			}
+			return this.ids.isEmpty();
+		}
+
+	}
+
+	/**
+	 * Iterator over ids that exposes the current id, {@literal null} when exhausted.
+	 */
+	private static final class PeekingIterator {
+
+		private final Iterator<Integer> ids;
+
+		private Integer current;
+
+		PeekingIterator(Iterator<Integer> ids) {
+			this.ids = ids;
+			next();
+		}
+
+		Integer peek() {
+			return this.current;
+		}
+
+		Integer next() {
+			this.current = this.ids.hasNext() ? this.ids.next() : null;
+			return this.current;
+		}
+
+	}
+
+	private record SimilarLastName(String name, int distance, boolean soundsAlike) {
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+/**
+ * Repository fragment for changing the version of an {@link Owner} aggregate when one of
+ * its pets or visits changed without a change to the owner row itself.
+ *
+ * @see OwnerRepository#saveAndIncrementVersion(Owner)
+ * @see VisitRepository#saveAndIncrementOwnerVersion(Visit)
+ */
+public interface OwnerVersioning {
+
+	/**
+	 * Have the version of the given owner incremented when the transaction commits. Only
+	 * this owner is updated, and its second-level cache entry along with it.
+	 * @param owner an owner of the current persistence context
+	 */
+	void incrementVersion(Owner owner);
+
+	/**
+	 * Increment the version of the owner with the given id, without loading it. Only this
+	 * owner is updated, and evicted from the second-level cache.
+	 * @param ownerId the id of an owner that is not part of the current persistence
+	 * context
+	 */
+	void incrementVersion(Integer ownerId);
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.sql.PreparedStatement;
+
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Increments owner versions through an {@link LockModeType#OPTIMISTIC_FORCE_INCREMENT}
+ * lock rather than a bulk update, which would evict all owners from the second-level
+ * cache. Owners that were not loaded are updated with a plain statement instead, as the
+ * lock would load the owner with its pets, and are evicted from the cache one by one.
+ */
+class OwnerVersioningImpl implements OwnerVersioning {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public void incrementVersion(Owner owner) {
+		this.entityManager.lock(owner, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+	}
+
+	@Override
+	public void incrementVersion(Integer ownerId) {
+		this.entityManager.unwrap(Session.class).doWork((connection) -> {
+			try (PreparedStatement statement = connection
+				.prepareStatement("UPDATE owners SET version = version + 1 WHERE id = ?")) {
+				statement.setInt(1, ownerId);
+				statement.executeUpdate();
+			}
+		});
+		// Evict again once committed, in case the old version was cached in the meantime
+		Cache cache = this.entityManager.getEntityManagerFactory().getCache();
+		cache.evict(Owner.class, ownerId);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCompletion(int status) {
+				cache.evict(Owner.class, ownerId);
+			}
+
+		});
+	}
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Application event published after {@link Owner}s, their {@link Pet}s or their
+ * {@link Visit}s have been created or changed and the change has been committed.
+ *
+ * @param ownerIds the ids of the changed owners
+ * @see OwnerSearchIndex
+ * @see OwnerDetailsCache
+ */
+public record OwnersChangedEvent(Collection<Integer> ownerIds) {
+
+	public static OwnersChangedEvent of(Integer ownerId) {
+		return new OwnersChangedEvent(List.of(ownerId));
+	}
+
+}
@@ -20,18 +20,20 @@ import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.samples.petclinic.model.NamedEntity;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
  * Simple business object representing a pet.
@@ -49,11 +51,21 @@ public class Pet extends NamedEntity {
 	@DateTimeFormat(pattern = "yyyy-MM-dd")
 	private LocalDate birthDate;
 
+	// resolved from the second-level cache rather than joined, types missing from it are
+	// selected together, see PetType
 	@ManyToOne
+	@Fetch(FetchMode.SELECT)
 	@JoinColumn(name = "type_id")
 	private PetType type;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+	@Column(name = "owner_id", updatable = false)
+	private Integer ownerId;
+
+	@Version
+	private Integer version;
+
+	// only ever read in pages through VisitRepository, which may grow without bound
+	@OneToMany(cascade = CascadeType.ALL)
 	@JoinColumn(name = "pet_id")
 	@OrderBy("date ASC")
 	private final Set<Visit> visits = new LinkedHashSet<>();
@@ -74,6 +86,33 @@ public class Pet extends NamedEntity {
 		this.type = type;
 	}
 
+	/**
+	 * Return the id of the {@link Owner} this pet belongs to. Only set for pets loaded
+	 * from the data store or written by {@link OwnerImporter}; pets added through
+	 * {@link Owner#addPet(Pet)} are linked by the owner's pets collection.
+	 * @return the owner id, or {@literal null} if not known
+	 */
+	public Integer getOwnerId() {
+		return this.ownerId;
+	}
+
+	public void setOwnerId(Integer ownerId) {
+		this.ownerId = ownerId;
+	}
+
+	public Integer getVersion() {
+		return this.version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
+	/**
+	 * Return the complete visit history of this pet, loaded lazily. Views show the most
+	 * recent visits from {@link VisitRepository#findPageByPetId} instead.
+	 * @return the visits, oldest first
+	 */
 	public Collection<Visit> getVisits() {
 		return this.visits;
 	}
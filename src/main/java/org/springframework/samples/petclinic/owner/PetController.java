@@ -17,8 +17,8 @@ package org.springframework.samples.petclinic.owner;
 
 import java.time.LocalDate;
 import java.util.Collection;
-import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.util.StringUtils;
@@ -48,21 +48,28 @@ class PetController {
 
 	private final OwnerRepository owners;
 
-	public PetController(OwnerRepository owners) {
+	private final OwnerResolver ownerResolver;
+
+	private final PetTypeRegistry petTypes;
+
+	private final ApplicationEventPublisher events;
+
+	public PetController(OwnerRepository owners, OwnerResolver ownerResolver, PetTypeRegistry petTypes,
+			ApplicationEventPublisher events) {
 		this.owners = owners;
+		this.ownerResolver = ownerResolver;
+		this.petTypes = petTypes;
+		this.events = events;
 	}
 
 	@ModelAttribute("types")
 	public Collection<PetType> populatePetTypes() {
-		return this.owners.findPetTypes();
+		return this.petTypes.findAll();
 	}
 
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable("ownerId") int ownerId) {
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
-		return owner;
+		return this.ownerResolver.getOwner(ownerId);
 	}
 
 	@ModelAttribute("pet")
@@ -73,19 +80,17 @@ class PetController {
 			return new Pet();
 		}
 
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
-		return owner.getPet(petId);
+		return this.ownerResolver.getPet(ownerId, petId);
 	}
 
 	@InitBinder("owner")
 	public void initOwnerBinder(WebDataBinder dataBinder) {
-		dataBinder.setDisallowedFields("id");
+		dataBinder.setDisallowedFields("id", "version");
 	}
 
 	@InitBinder("pet")
 	public void initPetBinder(WebDataBinder dataBinder) {
+		dataBinder.setDisallowedFields("ownerId", "version");
 		dataBinder.setValidator(new PetValidator());
 	}
 
@@ -114,6 +119,7 @@ class PetController {
 
 		owner.addPet(pet);
 		this.owners.save(owner);
+		this.events.publishEvent(OwnersChangedEvent.of(owner.getId()));
 		redirectAttributes.addFlashAttribute("message", "New Pet has been Added");
 		return "redirect:/owners/{ownerId}";
 	}
@@ -167,7 +173,8 @@ class PetController {
 		else {
 			owner.addPet(pet);
 		}
-		this.owners.save(owner);
+		this.owners.saveAndIncrementVersion(owner);
+		this.events.publishEvent(OwnersChangedEvent.of(owner.getId()));
 	}
 
 }
@@ -15,6 +15,10 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 import org.springframework.samples.petclinic.model.NamedEntity;
 
 import jakarta.persistence.Entity;
@@ -25,6 +29,9 @@ import jakarta.persistence.Table;
  */
 @Entity
 @Table(name = "types")
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
+@BatchSize(size = 20)
 public class PetType extends NamedEntity {
 
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory registry of all {@link PetType}s. Pet types are reference data that almost
+ * never change, so they are loaded once and served from an immutable snapshot with
+ * constant-time lookup by name and by id. The snapshot is reloaded after the configured
+ * refresh interval (<code>petclinic.pet-types.refresh-interval</code>) or on
+ * {@link #refresh()}.
+ */
+@Component
+public class PetTypeRegistry {
+
+	private final OwnerRepository owners;
+
+	private final long refreshIntervalNanos;
+
+	private volatile Snapshot snapshot;
+
+	public PetTypeRegistry(OwnerRepository owners,
+			@Value("${petclinic.pet-types.refresh-interval:10m}") Duration refreshInterval) {
+		this.owners = owners;
+		this.refreshIntervalNanos = refreshInterval.toNanos();
+	}
+
+	/**
+	 * Return all {@link PetType}s ordered by name.
+	 * @return an unmodifiable list of {@link PetType}s
+	 */
+	public List<PetType> findAll() {
+		return snapshot().all();
+	}
+
+	/**
+	 * Return the {@link PetType} with the given name.
+	 * @param name the name of the pet type
+	 * @return the pet type, or {@literal null} if none exists
+	 */
+	public PetType findByName(String name) {
+		return snapshot().byName().get(name);
+	}
+
+	/**
+	 * Return the {@link PetType} with the given id.
+	 * @param id the id of the pet type
+	 * @return the pet type, or {@literal null} if none exists
+	 */
+	public PetType findById(Integer id) {
+		return snapshot().byId().get(id);
+	}
+
+	/**
+	 * Reload the pet types from the data store, replacing the current snapshot.
+	 */
+	public void refresh() {
+		List<PetType> all = List.copyOf(this.owners.findPetTypes());
+		this.snapshot = new Snapshot(all,
+				all.stream().collect(Collectors.toUnmodifiableMap(PetType::getName, Function.identity())),
+				all.stream().collect(Collectors.toUnmodifiableMap(PetType::getId, Function.identity())),
+				System.nanoTime());
+	}
+
+	private Snapshot snapshot() {
+		Snapshot current = this.snapshot;
+		if (current == null || System.nanoTime() - current.loadedAt() > this.refreshIntervalNanos) {
+			synchronized (this) {
+				current = this.snapshot;
+				if (current == null || System.nanoTime() - current.loadedAt() > this.refreshIntervalNanos) {
+					refresh();
+					current = this.snapshot;
+				}
+			}
+		}
+		return current;
+	}
+
+	private record Snapshot(List<PetType> all, Map<String, PetType> byName, Map<Integer, PetType> byId, long loadedAt) {
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.model.KeysetCursor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive, read-only owner API for chatty clients such as the mobile app. The handlers
+ * return {@link Flux} and {@link Mono} backed by {@link ReactiveOwnerRepository}, so the
+ * servlet thread is released while the data store is queried. Owner lists are streamed
+ * one JSON document per line (<code>application/x-ndjson</code>), unless the client only
+ * accepts <code>application/json</code>, in which case they are collected into an array.
+ */
+@RestController
+@RequestMapping("/reactive/owners")
+class ReactiveOwnerController {
+
+	private static final int MAX_SEARCH_RESULTS = 50;
+
+	private final ReactiveOwnerRepository owners;
+
+	private final OwnerSearchIndex searchIndex;
+
+	private final int pageSize;
+
+	ReactiveOwnerController(ReactiveOwnerRepository owners, OwnerSearchIndex searchIndex,
+			@Value("${petclinic.owners.page-size:20}") int pageSize) {
+		this.owners = owners;
+		this.searchIndex = searchIndex;
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * Find owners by the start of their last name, a page at a time, or, when
+	 * <code>q</code> is given, through the {@link OwnerSearchIndex} like
+	 * <code>/owners/search</code>. Pages and cursors are those of
+	 * <code>/api/owners</code>: search results come in pages of
+	 * {@value #MAX_SEARCH_RESULTS} continued with <code>after</code>, and the
+	 * neighbouring pages are linked in the <code>Link</code> header either way.
+	 * @param lastName Value to search for, all owners if empty
+	 * @param cursor the cursor of the page, the first page if empty
+	 * @param query the words to search for
+	 * @param after the id after which to continue a search, if any
+	 * @return the matching owners, ordered by last name and id
+	 */
+	@GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public Mono<ResponseEntity<Flux<OwnerSummary>>> findOwners(@RequestParam(defaultValue = "") String lastName,
+			@RequestParam(required = false) String cursor, @RequestParam(name = "q", required = false) String query,
+			@RequestParam(required = false) Integer after) {
+		// resolved on the request thread, the page may be emitted on another one
+		UriComponentsBuilder uri = ServletUriComponentsBuilder.fromCurrentRequest();
+		if (query != null) {
+			List<Integer> ids = this.searchIndex.search(query, after, MAX_SEARCH_RESULTS + 1);
+			ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+			if (ids.size() > MAX_SEARCH_RESULTS) {
+				ids = ids.subList(0, MAX_SEARCH_RESULTS);
+				response.header(HttpHeaders.LINK, link(uri, "after", String.valueOf(ids.get(ids.size() - 1)), "next"));
+			}
+			return Mono.just(response.body(this.owners.findSummariesByIdIn(ids)));
+		}
+		return this.owners.findSummariesByLastNameStartingWith(lastName, KeysetCursor.decode(cursor), this.pageSize)
+			.map((page) -> {
+				List<String> links = new ArrayList<>();
+				if (page.hasNext()) {
+					links.add(link(uri, "cursor", page.getNextCursor().encode(), "next"));
+				}
+				if (page.hasPrevious()) {
+					links.add(link(uri, "cursor", page.getPreviousCursor().encode(), "prev"));
+				}
+				return ResponseEntity.ok()
+					.header(HttpHeaders.LINK, links.toArray(String[]::new))
+					.body(Flux.fromIterable(page.getContent()));
+			});
+	}
+
+	@GetMapping(path = "/{ownerId}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<OwnerDetails>> showOwner(@PathVariable("ownerId") int ownerId) {
+		return this.owners.findById(ownerId).map(ResponseEntity::ok).defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	private static String link(UriComponentsBuilder uri, String param, String value, String rel) {
+		return "<" + uri.cloneBuilder().replaceQueryParam(param, value).toUriString() + ">; rel=\"" + rel + "\"";
+	}
+
+}
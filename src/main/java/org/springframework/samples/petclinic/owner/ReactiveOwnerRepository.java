@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.samples.petclinic.model.KeysetCursor;
+import org.springframework.samples.petclinic.model.KeysetPage;
+import org.springframework.samples.petclinic.owner.OwnerDetails.PetDetails;
+import org.springframework.samples.petclinic.owner.OwnerDetails.VisitDetails;
+import org.springframework.stereotype.Repository;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking, read-only access to owners through R2DBC, for the reactive read API. Rows
+ * are mapped straight to {@link OwnerSummary} and {@link OwnerDetails} views and emitted
+ * as the driver produces them; no entity is ever loaded.
+ * <p>
+ * Note that the embedded H2 driver runs statements on the subscribing thread; only the
+ * network drivers of the <code>mysql</code> and <code>postgres</code> profiles release it
+ * while waiting for the database.
+ */
+@Repository
+class ReactiveOwnerRepository {
+
+	private static final String SUMMARY_COLUMNS = "SELECT o.id, o.first_name, o.last_name, o.address, o.city, "
+			+ "o.telephone, p.name AS pet_name ";
+
+	private static final String SUMMARIES = SUMMARY_COLUMNS + "FROM owners o LEFT JOIN pets p ON p.owner_id = o.id ";
+
+	private static final String AFTER = "AND (last_name > :keyLastName OR (last_name = :keyLastName AND id > :keyId)) ";
+
+	private static final String BEFORE = "AND (last_name < :keyLastName OR (last_name = :keyLastName AND id < :keyId)) ";
+
+	private static final String DETAILS = "SELECT o.id, o.first_name, o.last_name, o.address, o.city, "
+			+ "o.telephone, p.id AS pet_id, p.name AS pet_name, p.birth_date, t.name AS type_name, "
+			+ "v.id AS visit_id, v.visit_date, v.description FROM owners o "
+			+ "LEFT JOIN pets p ON p.owner_id = o.id LEFT JOIN types t ON t.id = p.type_id "
+			+ "LEFT JOIN visits v ON v.pet_id = p.id WHERE o.id = :id " + "ORDER BY p.name, p.id, v.visit_date, v.id";
+
+	private final DatabaseClient databaseClient;
+
+	ReactiveOwnerRepository(DatabaseClient databaseClient) {
+		this.databaseClient = databaseClient;
+	}
+
+	/**
+	 * Retrieve a page of {@link OwnerSummary} views, including pet names, of the owners
+	 * whose last name <i>starts</i> with the given name using keyset pagination. The
+	 * owners of the page are selected first, so that the limit does not count their pets.
+	 * @param lastName Value to search for
+	 * @param cursor the position to start from, or {@literal null} for the first page
+	 * @param size the page size
+	 * @return the page of matching {@link OwnerSummary}s
+	 */
+	Mono<KeysetPage<OwnerSummary>> findSummariesByLastNameStartingWith(String lastName, KeysetCursor cursor, int size) {
+		boolean forward = cursor == null || cursor.isForward();
+		String seek = (cursor == null) ? "" : forward ? AFTER : BEFORE;
+		String order = forward ? "ASC" : "DESC";
+		DatabaseClient.GenericExecuteSpec spec = this.databaseClient
+			.sql(SUMMARY_COLUMNS + "FROM (SELECT * FROM owners WHERE last_name LIKE :lastName " + seek
+					+ "ORDER BY last_name " + order + ", id " + order + " LIMIT :limit) o "
+					+ "LEFT JOIN pets p ON p.owner_id = o.id ORDER BY o.last_name " + order + ", o.id " + order
+					+ ", p.name")
+			.bind("lastName", lastName + "%")
+			.bind("limit", size + 1);
+		if (cursor != null) {
+			spec = spec.bind("keyLastName", cursor.getLastName()).bind("keyId", cursor.getId());
+		}
+		return summaries(spec).collectList()
+			.map((fetched) -> KeysetPage.of(fetched, cursor, size, OwnerSummary::getLastName, OwnerSummary::getId));
+	}
+
+	/**
+	 * Stream the {@link OwnerSummary} views, including pet names, of the owners with the
+	 * given ids, ordered by last name and id.
+	 * @param ids the ids of the owners
+	 * @return the {@link OwnerSummary}s of the owners that exist
+	 */
+	Flux<OwnerSummary> findSummariesByIdIn(Collection<Integer> ids) {
+		if (ids.isEmpty()) {
+			return Flux.empty();
+		}
+		return summaries(this.databaseClient.sql(SUMMARIES + "WHERE o.id IN (:ids) ORDER BY o.last_name, o.id, p.name")
+			.bind("ids", ids));
+	}
+
+	/**
+	 * Retrieve an {@link OwnerDetails} view of an owner with its pets and visits, with a
+	 * single query.
+	 * @param id the id to search for
+	 * @return the {@link OwnerDetails}, or an empty {@link Mono} if not found
+	 */
+	Mono<OwnerDetails> findById(int id) {
+		return this.databaseClient.sql(DETAILS)
+			.bind("id", id)
+			.map(DetailsRow::of)
+			.all()
+			.collectList()
+			.filter((rows) -> !rows.isEmpty())
+			.map(ReactiveOwnerRepository::toDetails);
+	}
+
+	/**
+	 * Map the rows of the {@link #SUMMARIES} query, one per pet, to one summary per
+	 * owner. The rows of an owner are consecutive.
+	 */
+	private static Flux<OwnerSummary> summaries(DatabaseClient.GenericExecuteSpec spec) {
+		return spec.map(SummaryRow::of).all().bufferUntilChanged(SummaryRow::id).map((rows) -> {
+			SummaryRow first = rows.get(0);
+			OwnerSummary summary = new OwnerSummary(first.id(), first.firstName(), first.lastName(), first.address(),
+					first.city(), first.telephone());
+			rows.stream().map(SummaryRow::petName).filter(Objects::nonNull).forEach(summary.getPets()::add);
+			return summary;
+		});
+	}
+
+	private static OwnerDetails toDetails(List<DetailsRow> rows) {
+		DetailsRow first = rows.get(0);
+		List<PetDetails> pets = new ArrayList<>();
+		Integer petId = null;
+		List<VisitDetails> visits = null;
+		for (DetailsRow row : rows) {
+			if (row.petId() == null) {
+				continue;
+			}
+			if (!row.petId().equals(petId)) {
+				petId = row.petId();
+				visits = new ArrayList<>();
+				pets.add(new PetDetails(petId, row.petName(), row.birthDate(), row.typeName(), visits));
+			}
+			if (row.visitId() != null) {
+				visits.add(new VisitDetails(row.visitId(), row.visitDate(), row.description()));
+			}
+		}
+		return new OwnerDetails(first.id(), first.firstName(), first.lastName(), first.address(), first.city(),
+				first.telephone(), pets);
+	}
+
+	private record SummaryRow(Integer id, String firstName, String lastName, String address, String city,
+			String telephone, String petName) {
+
+		static SummaryRow of(Readable row) {
+			return new SummaryRow(row.get("id", Integer.class), row.get("first_name", String.class),
+					row.get("last_name", String.class), row.get("address", String.class), row.get("city", String.class),
+					row.get("telephone", String.class), row.get("pet_name", String.class));
+		}
+
+	}
+
+	private record DetailsRow(Integer id, String firstName, String lastName, String address, String city,
+			String telephone, Integer petId, String petName, LocalDate birthDate, String typeName, Integer visitId,
+			LocalDate visitDate, String description) {
+
+		static DetailsRow of(Readable row) {
+			return new DetailsRow(row.get("id", Integer.class), row.get("first_name", String.class),
+					row.get("last_name", String.class), row.get("address", String.class), row.get("city", String.class),
+					row.get("telephone", String.class), row.get("pet_id", Integer.class),
+					row.get("pet_name", String.class), row.get("birth_date", LocalDate.class),
+					row.get("type_name", String.class), row.get("visit_id", Integer.class),
+					row.get("visit_date", LocalDate.class), row.get("description", String.class));
+		}
+
+	}
+
+}
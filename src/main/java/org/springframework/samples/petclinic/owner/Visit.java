@@ -23,6 +23,7 @@ import org.springframework.samples.petclinic.model.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 
 /**
@@ -42,6 +43,12 @@ public class Visit extends BaseEntity {
 	@NotBlank
 	private String description;
 
+	@Column(name = "pet_id", updatable = false)
+	private Integer petId;
+
+	@Version
+	private Integer version;
+
 	/**
 	 * Creates a new instance of Visit for the current date
 	 */
@@ -65,4 +72,26 @@ public class Visit extends BaseEntity {
 		this.description = description;
 	}
 
+	/**
+	 * Return the id of the {@link Pet} this visit belongs to. Only set for visits loaded
+	 * from the data store or booked through {@link VisitRepository}; visits added through
+	 * {@link Pet#addVisit(Visit)} are linked by the pet's visits collection.
+	 * @return the pet id, or {@literal null} if not known
+	 */
+	public Integer getPetId() {
+		return this.petId;
+	}
+
+	public void setPetId(Integer petId) {
+		this.petId = petId;
+	}
+
+	public Integer getVersion() {
+		return this.version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 }
@@ -15,9 +15,12 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.time.LocalDate;
 import java.util.Map;
-import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
@@ -26,6 +29,7 @@ import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import jakarta.validation.Valid;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -41,60 +45,93 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @Controller
 class VisitController {
 
-	private final OwnerRepository owners;
+	private final VisitRepository visits;
 
-	public VisitController(OwnerRepository owners) {
-		this.owners = owners;
+	private final OwnerResolver ownerResolver;
+
+	private final ApplicationEventPublisher events;
+
+	private final int recentVisits;
+
+	private final int pageSize;
+
+	public VisitController(VisitRepository visits, OwnerResolver ownerResolver, ApplicationEventPublisher events,
+			@Value("${petclinic.visits.recent:5}") int recentVisits,
+			@Value("${petclinic.visits.page-size:20}") int pageSize) {
+		this.visits = visits;
+		this.ownerResolver = ownerResolver;
+		this.events = events;
+		this.recentVisits = recentVisits;
+		this.pageSize = pageSize;
 	}
 
 	@InitBinder
 	public void setAllowedFields(WebDataBinder dataBinder) {
-		dataBinder.setDisallowedFields("id");
+		dataBinder.setDisallowedFields("id", "petId", "version");
 	}
 
 	/**
 	 * Called before each and every @RequestMapping annotated method. 2 goals: - Make sure
 	 * we always have fresh data - Since we do not use the session scope, make sure that
 	 * Pet object always has an id (Even though id is not part of the form fields)
+	 * <p>
+	 * Only the pet is loaded, together with a summary of its owner: booking a visit never
+	 * touches the owner's other pets or their visit history.
 	 * @param petId
 	 * @return Pet
 	 */
 	@ModelAttribute("visit")
 	public Visit loadPetWithVisit(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
 			Map<String, Object> model) {
-		Optional<Owner> optionalOwner = owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
+		OwnerSummary owner = this.ownerResolver.getOwnerSummary(ownerId);
 
-		Pet pet = owner.getPet(petId);
+		Pet pet = this.ownerResolver.getPet(ownerId, petId);
 		model.put("pet", pet);
 		model.put("owner", owner);
 
 		Visit visit = new Visit();
-		pet.addVisit(visit);
+		visit.setPetId(pet.getId());
 		return visit;
 	}
 
 	// Spring MVC calls method loadPetWithVisit(...) before initNewVisitForm is
 	// called
 	@GetMapping("/owners/{ownerId}/pets/{petId}/visits/new")
-	public String initNewVisitForm() {
+	public String initNewVisitForm(@PathVariable("petId") int petId, Map<String, Object> model) {
+		model.put("visits", this.visits.findPageByPetId(petId, null, null, this.recentVisits));
 		return "pets/createOrUpdateVisitForm";
 	}
 
 	// Spring MVC calls method loadPetWithVisit(...) before processNewVisitForm is
 	// called
 	@PostMapping("/owners/{ownerId}/pets/{petId}/visits/new")
-	public String processNewVisitForm(@ModelAttribute Owner owner, @PathVariable int petId, @Valid Visit visit,
-			BindingResult result, RedirectAttributes redirectAttributes) {
+	public String processNewVisitForm(@Valid Visit visit, BindingResult result, @PathVariable("ownerId") int ownerId,
+			@PathVariable("petId") int petId, Map<String, Object> model, RedirectAttributes redirectAttributes) {
 		if (result.hasErrors()) {
+			model.put("visits", this.visits.findPageByPetId(petId, null, null, this.recentVisits));
 			return "pets/createOrUpdateVisitForm";
 		}
 
-		owner.addVisit(petId, visit);
-		this.owners.save(owner);
+		this.visits.saveAndIncrementOwnerVersion(visit);
+		this.events.publishEvent(OwnersChangedEvent.of(ownerId));
 		redirectAttributes.addFlashAttribute("message", "Your visit has been booked");
 		return "redirect:/owners/{ownerId}";
 	}
 
+	/**
+	 * Show the visit history of a pet, most recent first, one page at a time.
+	 * @param petId the id of the pet
+	 * @param beforeDate the date of the oldest visit of the previous page, if any
+	 * @param beforeId the id of the oldest visit of the previous page, if any
+	 * @param model the model
+	 * @return the visit list view
+	 */
+	@GetMapping("/owners/{ownerId}/pets/{petId}/visits")
+	public String showVisits(@PathVariable("petId") int petId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate,
+			@RequestParam(required = false) Integer beforeId, Map<String, Object> model) {
+		model.put("visits", this.visits.findPageByPetId(petId, beforeDate, beforeId, this.pageSize));
+		return "pets/visitList";
+	}
+
 }
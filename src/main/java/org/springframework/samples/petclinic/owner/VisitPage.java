@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of the visit history of a {@link Pet}, most recent first, fetched with keyset
+ * pagination on the visit date and id. Only older visits can be paged to: the next page
+ * starts before the {@link #getOldest() oldest} visit of this one.
+ *
+ * @see VisitRepository#findPageByPetId(Integer, java.time.LocalDate, Integer, int)
+ */
+public final class VisitPage {
+
+	private final List<Visit> content;
+
+	private final boolean older;
+
+	private VisitPage(List<Visit> content, boolean older) {
+		this.content = content;
+		this.older = older;
+	}
+
+	/**
+	 * Create a page from the visits returned by a seek query, which is expected to have
+	 * fetched up to <code>size + 1</code> visits; the extra one only signals that older
+	 * visits exist.
+	 * @param fetched the fetched visits, most recent first
+	 * @param size the page size
+	 * @return the page
+	 */
+	static VisitPage of(List<Visit> fetched, int size) {
+		boolean older = fetched.size() > size;
+		return new VisitPage(Collections.unmodifiableList(older ? fetched.subList(0, size) : fetched), older);
+	}
+
+	public List<Visit> getContent() {
+		return this.content;
+	}
+
+	public boolean isEmpty() {
+		return this.content.isEmpty();
+	}
+
+	public boolean hasOlder() {
+		return this.older;
+	}
+
+	/**
+	 * Return the oldest visit of this page, where the page of older visits starts.
+	 * @return the oldest visit, or {@literal null} if the page is empty
+	 */
+	public Visit getOldest() {
+		return this.content.isEmpty() ? null : this.content.get(this.content.size() - 1);
+	}
+
+}
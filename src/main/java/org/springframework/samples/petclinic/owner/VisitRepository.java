@@ -0,0 +1,164 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository class for <code>Visit</code> domain objects. Visits are appended to a pet's
+ * history on their own, without loading and merging the {@link Owner} aggregate they
+ * belong to.
+ */
+public interface VisitRepository extends Repository<Visit, Integer>, OwnerVersioning {
+
+	/**
+	 * Save a <code>Visit</code> to the data store. The visit must reference its pet
+	 * through {@link Visit#getPetId()}; callers are expected to have checked that the pet
+	 * belongs to the owner the visit is booked for.
+	 * @param visit the <code>Visit</code> to save
+	 * @return the saved <code>Visit</code>
+	 */
+	Visit save(Visit visit);
+
+	/**
+	 * Save a <code>Visit</code> and increment the version of the {@link Owner} of its pet
+	 * in the same transaction, so that the owner's details are no longer considered
+	 * current by clients holding an older version. Neither the owner nor its pets are
+	 * loaded.
+	 * @param visit the <code>Visit</code> to save
+	 * @return the saved <code>Visit</code>
+	 * @see OwnerRepository#findVersionById(Integer)
+	 */
+	@Transactional
+	default Visit saveAndIncrementOwnerVersion(Visit visit) {
+		Visit saved = save(visit);
+		findOwnerIdByPetId(saved.getPetId()).ifPresent(this::incrementVersion);
+		return saved;
+	}
+
+	/**
+	 * Retrieve the id of the {@link Owner} of the given pet, without loading the owner.
+	 * @param petId the id of the pet
+	 * @return an {@link Optional} containing the id of the owner if the pet exists, or an
+	 * empty {@link Optional} otherwise
+	 */
+	@Query("SELECT pet.ownerId FROM Pet pet WHERE pet.id = :petId")
+	Optional<Integer> findOwnerIdByPetId(@Param("petId") Integer petId);
+
+	/**
+	 * Save several <code>Visit</code>s in a single transaction, e.g. when importing visit
+	 * history. Identifiers are allocated from a sequence, so the inserts are sent to the
+	 * data store in JDBC batches.
+	 * @param visits the <code>Visit</code>s to save
+	 * @return the saved <code>Visit</code>s
+	 */
+	List<Visit> saveAll(Iterable<Visit> visits);
+
+	/**
+	 * Retrieve a page of the visit history of a pet, most recent first, starting right
+	 * before the visit with the given date and id. Pages are seeked on the
+	 * <code>(pet_id, visit_date)</code> index, so their cost does not depend on how many
+	 * visits the pet has, nor on how far back the page is.
+	 * @param petId the id of the pet
+	 * @param beforeDate the date of the oldest visit of the previous page, or
+	 * {@literal null} for the most recent visits
+	 * @param beforeId the id of the oldest visit of the previous page, or {@literal null}
+	 * for the most recent visits
+	 * @param size the maximum number of visits of the page
+	 * @return the page of visits
+	 */
+	@Transactional(readOnly = true)
+	default VisitPage findPageByPetId(Integer petId, LocalDate beforeDate, Integer beforeId, int size) {
+		Limit limit = Limit.of(size + 1);
+		List<Visit> fetched = (beforeDate == null || beforeId == null) ? findLatestByPetId(petId, limit)
+				: findByPetIdBefore(petId, beforeDate, beforeId, limit);
+		return VisitPage.of(fetched, size);
+	}
+
+	/**
+	 * Retrieve the first page of the visit history of each of the given pets, as
+	 * {@link #findPageByPetId(Integer, LocalDate, Integer, int)} would with no date and
+	 * id, with a single query for all pets.
+	 * @param petIds the ids of the pets
+	 * @param size the maximum number of visits of each page
+	 * @return the page of visits of each pet, by pet id
+	 */
+	@Transactional(readOnly = true)
+	default Map<Integer, VisitPage> findLatestPagesByPetIdIn(Collection<Integer> petIds, int size) {
+		Map<Integer, List<Visit>> fetched = new HashMap<>();
+		if (!petIds.isEmpty()) {
+			for (Visit visit : findLatestByPetIdIn(petIds, size + 1)) {
+				fetched.computeIfAbsent(visit.getPetId(), (petId) -> new ArrayList<>()).add(visit);
+			}
+		}
+		Map<Integer, VisitPage> pages = new HashMap<>();
+		for (Integer petId : petIds) {
+			pages.put(petId, VisitPage.of(fetched.getOrDefault(petId, List.of()), size));
+		}
+		return pages;
+	}
+
+	/**
+	 * Retrieve the most recent visits of each of the given pets, numbering the visits of
+	 * each pet with <code>ROW_NUMBER()</code>, which H2, MySQL and PostgreSQL all
+	 * support.
+	 * @param petIds the ids of the pets
+	 * @param limit the maximum number of visits per pet
+	 * @return the visits, by pet id and most recent first
+	 */
+	@Query(nativeQuery = true, value = "SELECT id, visit_date, description, pet_id, version FROM ("
+			+ "SELECT visit.*, ROW_NUMBER() OVER (PARTITION BY pet_id ORDER BY visit_date DESC, id DESC) AS position "
+			+ "FROM visits visit WHERE pet_id IN (:petIds)) latest "
+			+ "WHERE position <= :limit ORDER BY pet_id, visit_date DESC, id DESC")
+	List<Visit> findLatestByPetIdIn(@Param("petIds") Collection<Integer> petIds, @Param("limit") int limit);
+
+	/**
+	 * Retrieve the most recent visits of a pet.
+	 * @param petId the id of the pet
+	 * @param limit the maximum number of visits
+	 * @return the visits, most recent first
+	 */
+	@Query("SELECT visit FROM Visit visit WHERE visit.petId = :petId ORDER BY visit.date DESC, visit.id DESC")
+	List<Visit> findLatestByPetId(@Param("petId") Integer petId, Limit limit);
+
+	/**
+	 * Retrieve the visits of a pet that come before the given date and id, in the order
+	 * of {@link #findLatestByPetId(Integer, Limit)}.
+	 * @param petId the id of the pet
+	 * @param date the date of the last visit already seen
+	 * @param id the id of the last visit already seen
+	 * @param limit the maximum number of visits
+	 * @return the visits, most recent first
+	 */
+	@Query("SELECT visit FROM Visit visit WHERE visit.petId = :petId "
+			+ "AND (visit.date < :date OR (visit.date = :date AND visit.id < :id)) "
+			+ "ORDER BY visit.date DESC, visit.id DESC")
+	List<Visit> findByPetIdBefore(@Param("petId") Integer petId, @Param("date") LocalDate date, @Param("id") Integer id,
+			Limit limit);
+
+}
@@ -16,38 +16,109 @@
 
 package org.springframework.samples.petclinic.system;
 
-import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import javax.cache.configuration.MutableConfiguration;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 /**
- * Cache configuration intended for caches providing the JCache API. This configuration
- * creates the used cache for the application and enables statistics that become
- * accessible via JMX.
+ * Cache configuration backed by Caffeine. Every cache used by the application must be
+ * declared with its own Caffeine specification under <code>petclinic.cache.specs</code>,
+ * for example:
+ *
+ * <pre class="code">
+ * petclinic.cache.specs[ownerDetails]=maximumSize=1000,recordStats
+ * </pre>
+ *
+ * Caches are bounded by size or by weight, where the weight of a cached map, such as the
+ * rendered pages of an owner by locale, is its number of entries, and record statistics
+ * so that hits, misses, evictions and load times are published to Micrometer by Spring
+ * Boot's cache metrics support. Requesting a cache that has not been declared fails
+ * instead of silently creating an unbounded one.
  */
 @Configuration(proxyBeanMethods = false)
 @EnableCaching
+@EnableConfigurationProperties(CacheConfiguration.CacheSpecs.class)
 class CacheConfiguration {
 
 	@Bean
-	public JCacheManagerCustomizer petclinicCacheConfigurationCustomizer() {
-		return cm -> cm.createCache("vets", cacheConfiguration());
+	public CaffeineCacheManager cacheManager(CacheSpecs cacheSpecs) {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		cacheManager.setAllowNullValues(false);
+		// no dynamic caches: only the declared ones are available
+		cacheManager.setCacheNames(List.of());
+		cacheSpecs.specs().forEach((name, spec) -> cacheManager.registerCustomCache(name, cacheBuilder(spec).build()));
+		return cacheManager;
 	}
 
 	/**
-	 * Create a simple configuration that enable statistics via the JCache programmatic
-	 * configuration API.
-	 * <p>
-	 * Within the configuration object that is provided by the JCache API standard, there
-	 * is only a very limited set of configuration options. The really relevant
-	 * configuration options (like the size limit) must be set via a configuration
-	 * mechanism that is provided by the selected JCache implementation.
+	 * Publish the load statistics of the caches. Spring's cache abstraction uses manual
+	 * Caffeine caches, for which Micrometer only binds load metrics when they are loading
+	 * caches; values computed by <code>@Cacheable(sync = true)</code> methods are
+	 * recorded as loads nevertheless.
 	 */
-	private javax.cache.configuration.Configuration<Object, Object> cacheConfiguration() {
-		return new MutableConfiguration<>().setStatisticsEnabled(true);
+	@Bean
+	public MeterBinder cacheLoadMetrics(CaffeineCacheManager cacheManager) {
+		return registry -> {
+			for (String name : cacheManager.getCacheNames()) {
+				Cache<Object, Object> cache = ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+				Tags tags = Tags.of("cache", name, "cache.manager", "cacheManager");
+				FunctionTimer
+					.builder("cache.load.duration", cache, c -> c.stats().loadCount(), c -> c.stats().totalLoadTime(),
+							TimeUnit.NANOSECONDS)
+					.tags(tags)
+					.description("The time the cache has spent loading new values")
+					.register(registry);
+				FunctionCounter.builder("cache.load", cache, c -> c.stats().loadSuccessCount())
+					.tags(tags.and("result", "success"))
+					.description("The number of times cache lookup methods have successfully loaded a new value")
+					.register(registry);
+				FunctionCounter.builder("cache.load", cache, c -> c.stats().loadFailureCount())
+					.tags(tags.and("result", "failure"))
+					.description("The number of times cache lookup methods failed to load a new value")
+					.register(registry);
+			}
+		};
+	}
+
+	private static Caffeine<Object, Object> cacheBuilder(String spec) {
+		Caffeine<Object, Object> builder = Caffeine.from(CaffeineSpec.parse(spec));
+		if (spec.contains("maximumWeight")) {
+			builder.weigher((key, value) -> weigh(value));
+		}
+		return builder;
+	}
+
+	private static int weigh(Object value) {
+		return (value instanceof Map<?, ?> map) ? Math.max(1, map.size()) : 1;
+	}
+
+	/**
+	 * Caffeine specifications of the application caches, keyed by cache name.
+	 */
+	@ConfigurationProperties("petclinic.cache")
+	record CacheSpecs(Map<String, String> specs) {
+
+		CacheSpecs {
+			specs = (specs != null) ? Map.copyOf(specs) : Map.of();
+		}
+
 	}
 
 }
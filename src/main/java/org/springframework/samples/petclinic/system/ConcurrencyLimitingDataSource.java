@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} that limits the number of connections in use at the same time with a
+ * fair {@link Semaphore}. With virtual threads there is no request thread pool bounding
+ * the number of requests that reach the data store: thousands of threads may ask the
+ * connection pool for a connection at once. They queue here in arrival order instead, and
+ * give up with a {@link SQLTransientConnectionException} after the acquire timeout.
+ * <p>
+ * The number of permits should match the size of the connection pool, so that a thread
+ * holding a permit never waits for a connection.
+ */
+class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+	private final Semaphore permits;
+
+	private final int maxConcurrency;
+
+	private final Duration acquireTimeout;
+
+	ConcurrencyLimitingDataSource(DataSource targetDataSource, int maxConcurrency, Duration acquireTimeout) {
+		super(targetDataSource);
+		this.permits = new Semaphore(maxConcurrency, true);
+		this.maxConcurrency = maxConcurrency;
+		this.acquireTimeout = acquireTimeout;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		try {
+			return releaseOnClose(super.getConnection());
+		}
+		catch (SQLException | RuntimeException ex) {
+			this.permits.release();
+			throw ex;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		try {
+			return releaseOnClose(super.getConnection(username, password));
+		}
+		catch (SQLException | RuntimeException ex) {
+			this.permits.release();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Return the number of connections that may be in use at the same time.
+	 * @return the number of permits
+	 */
+	int getMaxConcurrency() {
+		return this.maxConcurrency;
+	}
+
+	/**
+	 * Return the number of connections currently in use through this data source.
+	 * @return the number of permits held
+	 */
+	int getActive() {
+		return this.maxConcurrency - this.permits.availablePermits();
+	}
+
+	/**
+	 * Return an estimate of the number of threads waiting for a connection.
+	 * @return the number of threads waiting for a permit
+	 */
+	int getWaiting() {
+		return this.permits.getQueueLength();
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!this.permits.tryAcquire(this.acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				throw new SQLTransientConnectionException("No database connection available within "
+						+ this.acquireTimeout.toMillis() + "ms, " + getWaiting() + " requests waiting");
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", ex);
+		}
+	}
+
+	private Connection releaseOnClose(Connection target) {
+		AtomicBoolean closed = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(ConcurrencyLimitingDataSource.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+						case "equals":
+							return proxy == args[0];
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "close":
+							if (closed.compareAndSet(false, true)) {
+								try {
+									target.close();
+								}
+								finally {
+									this.permits.release();
+								}
+							}
+							return null;
+						default:
+							try {
+								return method.invoke(target, args);
+							}
+							catch (InvocationTargetException ex) {
+								throw ex.getTargetException();
+							}
+					}
+				});
+	}
+
+}
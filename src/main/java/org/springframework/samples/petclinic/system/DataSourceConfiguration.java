@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Limits the number of concurrent database connections when
+ * <code>petclinic.datasource.concurrency-limit.enabled</code> is set, as in the
+ * <code>virtual-threads</code> profile:
+ *
+ * <pre class="code">
+ * petclinic.datasource.concurrency-limit.enabled=true
+ * petclinic.datasource.concurrency-limit.acquire-timeout=10s
+ * </pre>
+ *
+ * The connection pool is wrapped in a {@link ConcurrencyLimitingDataSource} with as many
+ * permits as the pool has connections, unless
+ * <code>petclinic.datasource.concurrency-limit.max-concurrency</code> is set. The number
+ * of connections allowed, in use and of requests waiting for one are published as
+ * <code>petclinic.datasource.connections.max</code>,
+ * <code>petclinic.datasource.connections.active</code> and
+ * <code>petclinic.datasource.connections.waiting</code>.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("petclinic.datasource.concurrency-limit.enabled")
+class DataSourceConfiguration {
+
+	private static final String PREFIX = "petclinic.datasource.concurrency-limit";
+
+	@Bean
+	static ConcurrencyLimitPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+		return new ConcurrencyLimitPostProcessor(environment);
+	}
+
+	@Bean
+	public MeterBinder concurrencyLimitingDataSourceMetrics(DataSource dataSource) {
+		return registry -> {
+			ConcurrencyLimitingDataSource limited = unwrap(dataSource);
+			if (limited != null) {
+				Gauge
+					.builder("petclinic.datasource.connections.max", limited,
+							ConcurrencyLimitingDataSource::getMaxConcurrency)
+					.description("The number of connections that may be in use at the same time")
+					.register(registry);
+				Gauge
+					.builder("petclinic.datasource.connections.active", limited,
+							ConcurrencyLimitingDataSource::getActive)
+					.description("The number of connections in use, at most the concurrency limit")
+					.register(registry);
+				Gauge
+					.builder("petclinic.datasource.connections.waiting", limited,
+							ConcurrencyLimitingDataSource::getWaiting)
+					.description("The number of requests waiting for a connection")
+					.register(registry);
+			}
+		};
+	}
+
+	private static ConcurrencyLimitingDataSource unwrap(DataSource dataSource) {
+		try {
+			return dataSource.isWrapperFor(ConcurrencyLimitingDataSource.class)
+					? dataSource.unwrap(ConcurrencyLimitingDataSource.class) : null;
+		}
+		catch (SQLException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Wraps the connection pool in a {@link ConcurrencyLimitingDataSource}, before any
+	 * other post processor wraps the data source.
+	 */
+	static class ConcurrencyLimitPostProcessor implements BeanPostProcessor, Ordered {
+
+		private final Environment environment;
+
+		ConcurrencyLimitPostProcessor(Environment environment) {
+			this.environment = environment;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (!(bean instanceof HikariDataSource pool)) {
+				return bean;
+			}
+			Binder binder = Binder.get(this.environment);
+			int maxConcurrency = binder.bind(PREFIX + ".max-concurrency", Integer.class)
+				.orElse(pool.getMaximumPoolSize());
+			Duration acquireTimeout = binder.bind(PREFIX + ".acquire-timeout", Duration.class)
+				.orElse(Duration.ofMillis(pool.getConnectionTimeout()));
+			return new ConcurrencyLimitingDataSource(pool, maxConcurrency, acquireTimeout);
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.CacheSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.Pet;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate second-level cache backed by Caffeine through JCache. Reference data, that is
+ * pet types, specialties and vets, is annotated to be cached read-only. Owners with their
+ * pets are cached with the concurrency strategy set with
+ * <code>petclinic.jpa.cache.strategy</code>, <code>none</code> to not cache them at all:
+ *
+ * <pre class="code">
+ * petclinic.jpa.cache.strategy=nonstrict-read-write
+ * petclinic.jpa.cache.maximum-size=10000
+ * petclinic.jpa.cache.expire-after-write=10m
+ * </pre>
+ *
+ * Visits are not cached: they are booked through
+ * {@link org.springframework.samples.petclinic.owner.VisitRepository} without going
+ * through the pet's visits collection, which would therefore never be invalidated.
+ * <p>
+ * Every region holds at most <code>maximum-size</code> entries, for at most
+ * <code>expire-after-write</code>. Hits and misses are published per region by
+ * Hibernate's Micrometer support as <code>hibernate.second.level.cache.requests</code>,
+ * and their ratio as <code>petclinic.jpa.cache.hit.ratio</code>.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(HibernateCacheConfiguration.SecondLevelCacheProperties.class)
+class HibernateCacheConfiguration {
+
+	@Bean
+	public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties) {
+		return (hibernateProperties) -> {
+			hibernateProperties.put(CacheSettings.CACHE_REGION_FACTORY, new CaffeineRegionFactory(properties));
+			if (properties.strategy() != CacheConcurrencyStrategy.NONE) {
+				String usage = properties.strategy().toAccessType().getExternalName();
+				cache(hibernateProperties, CacheSettings.CLASS_CACHE_PREFIX, Owner.class.getName(), usage);
+				cache(hibernateProperties, CacheSettings.COLLECTION_CACHE_PREFIX, Owner.class.getName() + ".pets",
+						usage);
+				cache(hibernateProperties, CacheSettings.CLASS_CACHE_PREFIX, Pet.class.getName(), usage);
+			}
+		};
+	}
+
+	@Bean
+	public MeterBinder secondLevelCacheHitRatios(EntityManagerFactory entityManagerFactory) {
+		return (registry) -> {
+			Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+			for (String region : statistics.getSecondLevelCacheRegionNames()) {
+				Gauge
+					.builder("petclinic.jpa.cache.hit.ratio", statistics,
+							(s) -> hitRatio(s.getCacheRegionStatistics(region)))
+					.tag("region", region)
+					.description("The ratio of second-level cache requests that were hits")
+					.register(registry);
+			}
+		};
+	}
+
+	private static void cache(Map<String, Object> hibernateProperties, String prefix, String role, String usage) {
+		hibernateProperties.put(prefix + "." + role, usage);
+	}
+
+	private static double hitRatio(CacheRegionStatistics statistics) {
+		if (statistics == null) {
+			return Double.NaN;
+		}
+		long requests = statistics.getHitCount() + statistics.getMissCount();
+		return (requests > 0) ? (double) statistics.getHitCount() / requests : Double.NaN;
+	}
+
+	/**
+	 * JCache region factory creating bounded Caffeine caches, where Hibernate would
+	 * create unbounded ones storing entries by value. The cache manager is private to the
+	 * session factory.
+	 */
+	static class CaffeineRegionFactory extends JCacheRegionFactory {
+
+		private final SecondLevelCacheProperties properties;
+
+		CaffeineRegionFactory(SecondLevelCacheProperties properties) {
+			this.properties = properties;
+		}
+
+		@Override
+		protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map<String, Object> properties) {
+			CaffeineCachingProvider provider = new CaffeineCachingProvider();
+			return provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+		}
+
+		@Override
+		protected Cache<Object, Object> createCache(String regionName) {
+			CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+			// entries are immutable cache representations, there is no need to copy them
+			configuration.setStoreByValue(false);
+			// query results are only valid as long as the timestamps of their tables are
+			// known, so these must never be evicted
+			if (!RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME.equals(regionName)) {
+				configuration.setMaximumSize(OptionalLong.of(this.properties.maximumSize()));
+				configuration.setExpireAfterWrite(OptionalLong.of(this.properties.expireAfterWrite().toNanos()));
+			}
+			return getCacheManager().createCache(regionName, configuration);
+		}
+
+	}
+
+	/**
+	 * Second-level cache settings.
+	 *
+	 * @param strategy the concurrency strategy of owners and pets
+	 * @param maximumSize the maximum number of entries of each region
+	 * @param expireAfterWrite how long entries are kept
+	 */
+	@ConfigurationProperties("petclinic.jpa.cache")
+	record SecondLevelCacheProperties(@DefaultValue("read-write") CacheConcurrencyStrategy strategy,
+			@DefaultValue("10000") long maximumSize, @DefaultValue("10m") Duration expireAfterWrite) {
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.util.function.Supplier;
+
+/**
+ * Scope in which read-only transactions read from the primary database, even when
+ * replicas are configured with the <code>replicas</code> profile. Meant for reads whose
+ * result outlives the request, e.g. when filling a cache: a lagging replica would get an
+ * outdated copy cached until the next change.
+ *
+ * @see ReplicaRouter
+ */
+public final class PrimaryReads {
+
+	private static final ThreadLocal<Boolean> active = new ThreadLocal<>();
+
+	private PrimaryReads() {
+	}
+
+	/**
+	 * Run the given reads against the primary database.
+	 * @param <T> the type of the result
+	 * @param reads the reads, which must fetch their connections on the calling thread
+	 * @return the result of the reads
+	 */
+	public static <T> T call(Supplier<T> reads) {
+		if (isActive()) {
+			return reads.get();
+		}
+		active.set(Boolean.TRUE);
+		try {
+			return reads.get();
+		}
+		finally {
+			active.remove();
+		}
+	}
+
+	/**
+	 * Return whether the current thread runs within {@link #call(Supplier)}.
+	 * @return whether reads must go to the primary
+	 */
+	static boolean isActive() {
+		return active.get() != null;
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * R2DBC access to the same database as JPA, for the reactive read API. The R2DBC URL is
+ * derived from the JDBC one, so the embedded H2 database and the <code>mysql</code> and
+ * <code>postgres</code> profiles need no further configuration; set
+ * <code>petclinic.r2dbc.url</code> to use another one.
+ * <p>
+ * Only a {@link DatabaseClient} is exposed: Spring Boot does not configure a JDBC
+ * {@link javax.sql.DataSource} when there is an R2DBC
+ * {@link io.r2dbc.spi.ConnectionFactory} bean, so the connection pool is kept private.
+ */
+@Configuration(proxyBeanMethods = false)
+class R2dbcConfiguration implements DisposableBean {
+
+	private ConnectionPool connectionPool;
+
+	@Bean
+	public DatabaseClient databaseClient(DataSourceProperties dataSourceProperties,
+			@Value("${petclinic.r2dbc.url:}") String url, @Value("${petclinic.r2dbc.pool.max-size:10}") int maxSize) {
+		String r2dbcUrl = StringUtils.hasText(url) ? url : toR2dbcUrl(dataSourceProperties.determineUrl());
+		ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate();
+		String username = dataSourceProperties.determineUsername();
+		if (StringUtils.hasText(username)) {
+			options.option(ConnectionFactoryOptions.USER, username);
+		}
+		String password = dataSourceProperties.determinePassword();
+		if (StringUtils.hasText(password)) {
+			options.option(ConnectionFactoryOptions.PASSWORD, password);
+		}
+		this.connectionPool = new ConnectionPool(
+				ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+					.name("r2dbc")
+					.initialSize(1)
+					.maxSize(maxSize)
+					.build());
+		return DatabaseClient.create(this.connectionPool);
+	}
+
+	/**
+	 * Return the R2DBC URL of the database with the given JDBC URL.
+	 * @param jdbcUrl the JDBC URL, e.g.
+	 * <code>jdbc:postgresql://localhost/petclinic</code>
+	 * @return the R2DBC URL, e.g. <code>r2dbc:postgresql://localhost/petclinic</code>
+	 */
+	static String toR2dbcUrl(String jdbcUrl) {
+		if (jdbcUrl.startsWith("jdbc:h2:mem:")) {
+			// the in-memory database is shared by name within the JVM
+			return "r2dbc:h2:mem:///" + jdbcUrl.substring("jdbc:h2:mem:".length());
+		}
+		if (jdbcUrl.startsWith("jdbc:")) {
+			return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+		}
+		throw new IllegalStateException("Cannot derive an R2DBC URL from " + jdbcUrl + ", set petclinic.r2dbc.url");
+	}
+
+	@Override
+	public void destroy() {
+		if (this.connectionPool != null) {
+			this.connectionPool.dispose();
+		}
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.samples.petclinic.system.ReplicaRouter.Selection;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Sends read-only transactions to replicas of the database when
+ * <code>petclinic.datasource.replicas.urls</code> is set, as in the <code>replicas</code>
+ * profile:
+ *
+ * <pre class="code">
+ * petclinic.datasource.replicas.urls[0]=jdbc:postgresql://replica1/petclinic
+ * petclinic.datasource.replicas.urls[1]=jdbc:postgresql://replica2/petclinic
+ * petclinic.datasource.replicas.selection=least-loaded
+ * petclinic.datasource.replicas.read-your-writes-window=5s
+ * </pre>
+ *
+ * Replicas use the credentials of the primary unless overridden. The repositories already
+ * run their queries in read-only transactions, so no code needs to change. The number of
+ * replicas passing their health check is published as
+ * <code>petclinic.datasource.replicas.healthy</code>.
+ *
+ * @see ReplicaRouter
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("petclinic.datasource.replicas.urls[0]")
+@EnableConfigurationProperties(ReplicaDataSourceConfiguration.ReplicaProperties.class)
+class ReplicaDataSourceConfiguration {
+
+	@Bean
+	public ReplicaRouter replicaRouter(ReplicaProperties properties, DataSourceProperties dataSourceProperties,
+			ObjectProvider<SqlInitializationProperties> sqlInitProperties,
+			ResourcePatternResolver resourcePatternResolver) {
+		List<HikariDataSource> replicas = new ArrayList<>();
+		for (int i = 0; i < properties.urls().size(); i++) {
+			HikariDataSource replica = dataSourceProperties.initializeDataSourceBuilder()
+				.type(HikariDataSource.class)
+				.url(properties.urls().get(i))
+				.username(StringUtils.hasText(properties.username()) ? properties.username()
+						: dataSourceProperties.determineUsername())
+				.password((properties.password() != null) ? properties.password()
+						: dataSourceProperties.determinePassword())
+				.build();
+			replica.setPoolName("replica-" + (i + 1));
+			replica.setReadOnly(true);
+			if (properties.poolSize() != null) {
+				replica.setMaximumPoolSize(properties.poolSize());
+			}
+			if (properties.initialize()) {
+				initialize(replica, sqlInitProperties.getObject(), resourcePatternResolver);
+			}
+			replicas.add(replica);
+		}
+		return new ReplicaRouter(replicas, properties.selection(), properties.healthCheckInterval(),
+				properties.readYourWritesWindow());
+	}
+
+	@Bean
+	static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReplicaRouter> router) {
+		return new ReplicaRoutingPostProcessor(router);
+	}
+
+	@Bean
+	public MeterBinder replicaMetrics(ReplicaRouter router) {
+		return (registry) -> Gauge
+			.builder("petclinic.datasource.replicas.healthy", router, ReplicaRouter::getHealthyReplicas)
+			.description("The number of replicas used for read-only transactions")
+			.register(registry);
+	}
+
+	/**
+	 * Run the schema and data scripts of the primary on a replica, so that a local
+	 * in-memory database can stand in for a real replica.
+	 */
+	private static void initialize(DataSource replica, SqlInitializationProperties sqlInitProperties,
+			ResourcePatternResolver resourcePatternResolver) {
+		ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+		populator.setSqlScriptEncoding(
+				(sqlInitProperties.getEncoding() != null) ? sqlInitProperties.getEncoding().name() : null);
+		List<String> locations = new ArrayList<>();
+		if (sqlInitProperties.getSchemaLocations() != null) {
+			locations.addAll(sqlInitProperties.getSchemaLocations());
+		}
+		if (sqlInitProperties.getDataLocations() != null) {
+			locations.addAll(sqlInitProperties.getDataLocations());
+		}
+		try {
+			for (String location : locations) {
+				for (Resource script : resourcePatternResolver.getResources(location)) {
+					populator.addScript(script);
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		DatabasePopulatorUtils.execute(populator, replica);
+	}
+
+	/**
+	 * Routes the application's data source through the replicas, after other post
+	 * processors, such as the concurrency limit, have wrapped the primary.
+	 */
+	static class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+		private final ObjectProvider<ReplicaRouter> router;
+
+		ReplicaRoutingPostProcessor(ObjectProvider<ReplicaRouter> router) {
+			this.router = router;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (bean instanceof DataSource primary && "dataSource".equals(beanName)) {
+				return this.router.getObject().route(primary);
+			}
+			return bean;
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.LOWEST_PRECEDENCE;
+		}
+
+	}
+
+	/**
+	 * Replica settings.
+	 *
+	 * @param urls the JDBC URLs of the replicas
+	 * @param username the user of the replicas, the primary's if not set
+	 * @param password the password of the replicas, the primary's if not set
+	 * @param poolSize the maximum pool size of each replica, HikariCP's default if not
+	 * set
+	 * @param selection how replicas are chosen
+	 * @param healthCheckInterval how often replicas are checked
+	 * @param readYourWritesWindow how long reads of a session go to the primary after it
+	 * wrote
+	 * @param initialize whether to run the primary's SQL initialization scripts on the
+	 * replicas, for local in-memory replicas
+	 */
+	@ConfigurationProperties("petclinic.datasource.replicas")
+	record ReplicaProperties(List<String> urls, String username, String password, Integer poolSize,
+			@DefaultValue("round-robin") Selection selection, @DefaultValue("10s") Duration healthCheckInterval,
+			@DefaultValue("5s") Duration readYourWritesWindow, boolean initialize) {
+
+		ReplicaProperties {
+			urls = (urls != null) ? List.copyOf(urls) : List.of();
+		}
+
+	}
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Spreads read-only transactions over a number of replicas of the primary database, see
+ * {@link #route(DataSource)}.
+ * <p>
+ * Replicas are chosen in turn or, with {@link Selection#LEAST_LOADED}, by the lowest
+ * number of connections in use. A background task checks that each replica accepts
+ * connections; replicas failing the check or a connection attempt are skipped until they
+ * pass the next check. When no replica is available, the primary is used.
+ * <p>
+ * Replicas lag behind the primary. The reads of requests other than GET and HEAD go to
+ * the primary, so that submitted forms are bound to current data. After a read-write
+ * transaction, the reads of the same request and, for the configured window, of the same
+ * HTTP session go to the primary too, so that users see their own changes, e.g. on the
+ * page they are redirected to. So do the reads within {@link PrimaryReads#call}.
+ */
+class ReplicaRouter implements DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(ReplicaRouter.class);
+
+	private static final String LAST_WRITE_ATTRIBUTE = ReplicaRouter.class.getName() + ".LAST_WRITE";
+
+	/**
+	 * How replicas are chosen.
+	 */
+	enum Selection {
+
+		/**
+		 * Use the available replicas in turn.
+		 */
+		ROUND_ROBIN,
+
+		/**
+		 * Use the available replica with the fewest connections in use.
+		 */
+		LEAST_LOADED
+
+	}
+
+	private final List<Replica> replicas;
+
+	private final Selection selection;
+
+	private final long readYourWritesMillis;
+
+	private final ScheduledExecutorService healthChecks;
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	private volatile DataSource primary;
+
+	ReplicaRouter(List<HikariDataSource> replicas, Selection selection, Duration healthCheckInterval,
+			Duration readYourWritesWindow) {
+		this.replicas = replicas.stream().map(Replica::new).toList();
+		this.selection = selection;
+		this.readYourWritesMillis = readYourWritesWindow.toMillis();
+		this.healthChecks = Executors.newSingleThreadScheduledExecutor((task) -> {
+			Thread thread = new Thread(task, "replica-health-check");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.healthChecks.scheduleWithFixedDelay(this::checkHealth, healthCheckInterval.toMillis(),
+				healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Return the data source to use in place of the given primary: connections of
+	 * read-only transactions come from the replicas, all others from the primary.
+	 * Connections are only fetched when the first statement is executed, once the
+	 * transaction has been registered as read-only with the
+	 * {@link TransactionSynchronizationManager}; the JPA transaction manager does not
+	 * mark the connection itself read-only before that.
+	 * @param primary the data source of the primary database
+	 * @return the routing data source
+	 */
+	DataSource route(DataSource primary) {
+		this.primary = primary;
+		return new LazyConnectionDataSourceProxy(new RoutingDataSource(primary));
+	}
+
+	private Connection getReplicaConnection() throws SQLException {
+		if (PrimaryReads.isActive() || recentlyWritten()) {
+			return this.primary.getConnection();
+		}
+		for (int attempt = 0; attempt < this.replicas.size(); attempt++) {
+			Replica replica = select();
+			if (replica == null) {
+				break;
+			}
+			try {
+				return replica.dataSource.getConnection();
+			}
+			catch (SQLException ex) {
+				logger.warn("Replica " + replica.dataSource.getJdbcUrl() + " unavailable, skipping it: " + ex);
+				replica.healthy = false;
+			}
+		}
+		return this.primary.getConnection();
+	}
+
+	private Replica select() {
+		if (this.selection == Selection.LEAST_LOADED) {
+			Replica selected = null;
+			int selectedActive = Integer.MAX_VALUE;
+			for (Replica replica : this.replicas) {
+				int active = replica.getActiveConnections();
+				if (replica.healthy && active < selectedActive) {
+					selected = replica;
+					selectedActive = active;
+				}
+			}
+			return selected;
+		}
+		for (int i = 0; i < this.replicas.size(); i++) {
+			Replica replica = this.replicas.get(Math.floorMod(this.next.getAndIncrement(), this.replicas.size()));
+			if (replica.healthy) {
+				return replica;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the replicas, in configuration order.
+	 * @return the replica data sources
+	 */
+	List<HikariDataSource> getReplicas() {
+		return this.replicas.stream().map((replica) -> replica.dataSource).toList();
+	}
+
+	/**
+	 * Return the number of replicas currently used for reads.
+	 * @return the number of replicas that passed their last health check
+	 */
+	int getHealthyReplicas() {
+		return (int) this.replicas.stream().filter((replica) -> replica.healthy).count();
+	}
+
+	private void checkHealth() {
+		for (Replica replica : this.replicas) {
+			boolean healthy;
+			try (Connection connection = replica.dataSource.getConnection()) {
+				healthy = connection.isValid(5);
+			}
+			catch (SQLException | RuntimeException ex) {
+				healthy = false;
+			}
+			if (healthy != replica.healthy) {
+				logger.info("Replica " + replica.dataSource.getJdbcUrl() + (healthy ? " is back" : " is unavailable"));
+			}
+			replica.healthy = healthy;
+		}
+	}
+
+	/**
+	 * Record a read-write transaction for the current request and session, if any.
+	 */
+	private void recordWrite() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			long now = System.currentTimeMillis();
+			attributes.setAttribute(LAST_WRITE_ATTRIBUTE, now, RequestAttributes.SCOPE_REQUEST);
+			attributes.setAttribute(LAST_WRITE_ATTRIBUTE, now, RequestAttributes.SCOPE_SESSION);
+		}
+	}
+
+	/**
+	 * Return whether the current request may change data or whether it or, within the
+	 * read-your-writes window, the current session ran a read-write transaction.
+	 */
+	private boolean recentlyWritten() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return false;
+		}
+		// data submitted by forms is bound to what the primary holds, not to a stale copy
+		if (attributes instanceof ServletRequestAttributes servletAttributes
+				&& !HttpMethod.GET.matches(servletAttributes.getRequest().getMethod())
+				&& !HttpMethod.HEAD.matches(servletAttributes.getRequest().getMethod())) {
+			return true;
+		}
+		if (attributes.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+			return true;
+		}
+		Object lastWrite = attributes.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_SESSION);
+		return lastWrite instanceof Long time && System.currentTimeMillis() - time < this.readYourWritesMillis;
+	}
+
+	@Override
+	public void destroy() {
+		this.healthChecks.shutdownNow();
+		this.replicas.forEach((replica) -> replica.dataSource.close());
+	}
+
+	private static final class Replica {
+
+		private final HikariDataSource dataSource;
+
+		private volatile boolean healthy = true;
+
+		Replica(HikariDataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		int getActiveConnections() {
+			return (this.dataSource.getHikariPoolMXBean() != null)
+					? this.dataSource.getHikariPoolMXBean().getActiveConnections() : 0;
+		}
+
+	}
+
+	/**
+	 * The replicas for read-only transactions, the primary for all other connections,
+	 * recording read-write transactions as they fetch their connection. Connections with
+	 * explicit credentials always come from the primary.
+	 */
+	private final class RoutingDataSource extends DelegatingDataSource {
+
+		RoutingDataSource(DataSource primary) {
+			super(primary);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+				return getReplicaConnection();
+			}
+			if (TransactionSynchronizationManager.isActualTransactionActive()) {
+				recordWrite();
+			}
+			return super.getConnection();
+		}
+
+	}
+
+}
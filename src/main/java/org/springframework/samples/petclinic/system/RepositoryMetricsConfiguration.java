@@ -0,0 +1,257 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Times every call to a Spring Data repository, such as <code>OwnerRepository</code> and
+ * <code>VetRepository</code>, and records how much database work each call did, taken at
+ * the JDBC and entity level:
+ * <ul>
+ * <li><code>petclinic.repository.invocations</code>, the duration of the call</li>
+ * <li><code>petclinic.repository.statements</code>, the JDBC statements executed</li>
+ * <li><code>petclinic.repository.rows</code>, the rows fetched from result sets</li>
+ * <li><code>petclinic.repository.entities</code>, the entities loaded, from the data
+ * store or the second-level cache, e.g. pets and visits loaded along with an owner</li>
+ * </ul>
+ * All are tagged with the <code>repository</code> and <code>method</code> called, the
+ * <code>outcome</code>, <code>SUCCESS</code> or <code>ERROR</code>, and the
+ * <code>exception</code> thrown, if any. Default methods of the repositories are measured
+ * as a whole, as are the methods they call, and a call includes committing the
+ * transaction it started. Percentile histograms are published as configured with
+ * <code>management.metrics.distribution.percentiles-histogram.*</code>.
+ * <p>
+ * Hibernate statistics only count the whole session factory. To attribute work to a
+ * single call, the application's data source counts the statements and rows of each
+ * thread, and a Hibernate post-load listener counts its entities.
+ */
+@Configuration(proxyBeanMethods = false)
+class RepositoryMetricsConfiguration {
+
+	@Bean
+	public static BeanPostProcessor workCountingPostProcessor() {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+					return new CountingDataSource(dataSource);
+				}
+				if (bean instanceof EntityManagerFactory entityManagerFactory) {
+					entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+						.getServiceRegistry()
+						.getService(EventListenerRegistry.class)
+						.appendListeners(EventType.POST_LOAD,
+								(PostLoadEventListener) (event) -> Counts.current().entities++);
+				}
+				return bean;
+			}
+
+		};
+	}
+
+	@Bean
+	public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+					factoryBean.addRepositoryFactoryCustomizer((factory) -> factory.addRepositoryProxyPostProcessor(
+							(proxyFactory, information) -> proxyFactory.addAdvice(0, new RepositoryMetricsInterceptor(
+									registry, information.getRepositoryInterface().getSimpleName()))));
+				}
+				return bean;
+			}
+
+		};
+	}
+
+	/**
+	 * Records the metrics of the calls to a repository. Being the outermost advice of the
+	 * repository proxy, it also sees default methods and transaction commits.
+	 */
+	static class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+		private final ObjectProvider<MeterRegistry> registry;
+
+		private final String repository;
+
+		RepositoryMetricsInterceptor(ObjectProvider<MeterRegistry> registry, String repository) {
+			this.registry = registry;
+			this.repository = repository;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			MeterRegistry registry = this.registry.getIfAvailable();
+			if (registry == null) {
+				return invocation.proceed();
+			}
+			Counts counts = Counts.current();
+			long statements = counts.statements;
+			long rows = counts.rows;
+			long entities = counts.entities;
+			Timer.Sample sample = Timer.start(registry);
+			Throwable failure = null;
+			try {
+				return invocation.proceed();
+			}
+			catch (Throwable ex) {
+				failure = ex;
+				throw ex;
+			}
+			finally {
+				Tags tags = Tags.of("repository", this.repository, "method", invocation.getMethod().getName(),
+						"outcome", (failure != null) ? "ERROR" : "SUCCESS", "exception",
+						(failure != null) ? failure.getClass().getSimpleName() : "none");
+				sample.stop(Timer.builder("petclinic.repository.invocations")
+					.description("Duration of repository calls")
+					.tags(tags)
+					.register(registry));
+				record(registry, "petclinic.repository.statements", "JDBC statements executed per repository call",
+						tags, counts.statements - statements);
+				record(registry, "petclinic.repository.rows", "Rows fetched per repository call", tags,
+						counts.rows - rows);
+				record(registry, "petclinic.repository.entities", "Entities loaded per repository call", tags,
+						counts.entities - entities);
+			}
+		}
+
+		private static void record(MeterRegistry registry, String name, String description, Tags tags, long amount) {
+			DistributionSummary.builder(name).description(description).tags(tags).register(registry).record(amount);
+		}
+
+	}
+
+	/**
+	 * Running totals of the work done by a thread, only ever compared before and after a
+	 * call.
+	 */
+	static final class Counts {
+
+		private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+		long statements;
+
+		long rows;
+
+		long entities;
+
+		static Counts current() {
+			return COUNTS.get();
+		}
+
+	}
+
+	/**
+	 * Data source counting the JDBC statements executed and the rows fetched through its
+	 * connections in the {@link Counts} of the current thread; batches count once.
+	 */
+	static class CountingDataSource extends DelegatingDataSource {
+
+		private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+				"executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+		CountingDataSource(DataSource targetDataSource) {
+			super(targetDataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return proxy(Connection.class, super.getConnection());
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return proxy(Connection.class, super.getConnection(username, password));
+		}
+
+		/**
+		 * Proxy a connection, statement or result set, proxying the statements and result
+		 * sets obtained from it in turn.
+		 */
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(Class<T> type, T target) {
+			return (T) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+					(proxy, method, args) -> {
+						switch (method.getName()) {
+							case "equals":
+								return proxy == args[0];
+							case "hashCode":
+								return System.identityHashCode(proxy);
+						}
+						Object result = invoke(target, method, args);
+						if (target instanceof ResultSet) {
+							if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+								Counts.current().rows++;
+							}
+							return result;
+						}
+						if (target instanceof Statement && EXECUTE_METHODS.contains(method.getName())) {
+							Counts.current().statements++;
+						}
+						if (result instanceof ResultSet resultSet) {
+							return proxy(ResultSet.class, resultSet);
+						}
+						if (result instanceof Statement statement && target instanceof Connection) {
+							return proxy((Class<Statement>) method.getReturnType(), statement);
+						}
+						return result;
+					});
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+
+	}
+
+}
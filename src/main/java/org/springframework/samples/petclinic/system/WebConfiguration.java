@@ -2,6 +2,7 @@ package org.springframework.samples.petclinic.system;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.samples.petclinic.owner.OwnerETagInterceptor;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -24,6 +25,12 @@ import java.util.Locale;
 @SuppressWarnings("unused")
 public class WebConfiguration implements WebMvcConfigurer {
 
+	private final OwnerETagInterceptor ownerETagInterceptor;
+
+	public WebConfiguration(OwnerETagInterceptor ownerETagInterceptor) {
+		this.ownerETagInterceptor = ownerETagInterceptor;
+	}
+
 	/**
 	 * Uses session storage to remember the user’s language setting across requests.
 	 * Defaults to English if nothing is specified.
@@ -49,12 +56,15 @@ public class WebConfiguration implements WebMvcConfigurer {
 	}
 
 	/**
-	 * Registers the locale change interceptor so it can run on each request.
+	 * Registers the locale change interceptor so it can run on each request, followed by
+	 * the interceptor answering conditional requests for the owner details page, whose
+	 * entity tag depends on the locale.
 	 * @param registry where interceptors are added
 	 */
 	@Override
 	public void addInterceptors(InterceptorRegistry registry) {
 		registry.addInterceptor(localeChangeInterceptor());
+		registry.addInterceptor(this.ownerETagInterceptor).addPathPatterns("/owners/*");
 	}
 
 }
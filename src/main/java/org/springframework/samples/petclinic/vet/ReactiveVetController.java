@@ -0,0 +1,47 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive, read-only vet API, next to the owner one. The vets are emitted from the
+ * in-memory {@link VetDirectory}, which does not touch the data store between refreshes.
+ */
+@RestController
+class ReactiveVetController {
+
+	private final VetDirectory vetDirectory;
+
+	ReactiveVetController(VetDirectory vetDirectory) {
+		this.vetDirectory = vetDirectory;
+	}
+
+	/**
+	 * Stream all vets, ordered by last name and id.
+	 * @return the vets
+	 */
+	@GetMapping(path = "/reactive/vets",
+			produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public Flux<VetSummary> showVets() {
+		return Flux.defer(() -> Flux.fromIterable(this.vetDirectory.findAll()));
+	}
+
+}
@@ -15,16 +15,21 @@
  */
 package org.springframework.samples.petclinic.vet;
 
-import java.util.List;
+import java.util.Locale;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.model.KeysetCursor;
+import org.springframework.samples.petclinic.model.KeysetPage;
+import org.springframework.samples.petclinic.system.BinaryRepresentationConfiguration;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * @author Juergen Hoeller
@@ -35,44 +40,94 @@ import org.springframework.web.bind.annotation.ResponseBody;
 @Controller
 class VetController {
 
-	private final VetRepository vetRepository;
+	private static final MediaType SMILE = MediaType
+		.parseMediaType(BinaryRepresentationConfiguration.APPLICATION_SMILE_VALUE);
 
-	public VetController(VetRepository vetRepository) {
-		this.vetRepository = vetRepository;
+	private final VetDirectory vetDirectory;
+
+	private final ContentNegotiationManager contentNegotiationManager;
+
+	public VetController(VetDirectory vetDirectory, ContentNegotiationManager contentNegotiationManager) {
+		this.vetDirectory = vetDirectory;
+		this.contentNegotiationManager = contentNegotiationManager;
 	}
 
 	@GetMapping("/vets.html")
-	public String showVetList(@RequestParam(defaultValue = "1") int page, Model model) {
-		// Here we are returning an object of type 'Vets' rather than a collection of Vet
-		// objects so it is simpler for Object-Xml mapping
-		Vets vets = new Vets();
-		Page<Vet> paginated = findPaginated(page);
-		vets.getVetList().addAll(paginated.toList());
-		return addPaginationModel(page, paginated, model);
+	public String showVetList(@RequestParam(required = false) String cursor, Model model, Locale locale,
+			WebRequest request) {
+		if (request.checkNotModified("W/\"" + this.vetDirectory.getETag() + "-" + locale + "\"")) {
+			return null;
+		}
+		KeysetPage<VetSummary> paginated = findPaginated(KeysetCursor.decode(cursor));
+		return addPaginationModel(paginated, model);
 	}
 
-	private String addPaginationModel(int page, Page<Vet> paginated, Model model) {
-		List<Vet> listVets = paginated.getContent();
-		model.addAttribute("currentPage", page);
-		model.addAttribute("totalPages", paginated.getTotalPages());
-		model.addAttribute("totalItems", paginated.getTotalElements());
-		model.addAttribute("listVets", listVets);
+	private String addPaginationModel(KeysetPage<VetSummary> paginated, Model model) {
+		model.addAttribute("previousCursor", paginated.getPreviousCursor());
+		model.addAttribute("nextCursor", paginated.getNextCursor());
+		model.addAttribute("listVets", paginated.getContent());
 		return "vets/vetList";
 	}
 
-	private Page<Vet> findPaginated(int page) {
+	private KeysetPage<VetSummary> findPaginated(KeysetCursor cursor) {
 		int pageSize = 5;
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
-		return vetRepository.findAll(pageable);
+		return this.vetDirectory.findPage(cursor, pageSize);
+	}
+
+	/**
+	 * Return all vets as JSON, serialized once per {@link VetDirectory} snapshot. A
+	 * request with a matching <code>If-None-Match</code> header gets an empty
+	 * <code>304 Not Modified</code> response.
+	 * @return the JSON representation of {@link Vets}
+	 */
+	@GetMapping(path = "/vets", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<byte[]> showResourcesVetList() {
+		return ResponseEntity.ok().eTag(this.vetDirectory.getETag() + "-json").body(this.vetDirectory.getJson());
+	}
+
+	/**
+	 * Return all vets as XML, marshalled once per {@link VetDirectory} snapshot. A
+	 * request with a matching <code>If-None-Match</code> header gets an empty
+	 * <code>304 Not Modified</code> response.
+	 * @return the XML representation of {@link Vets}
+	 */
+	@GetMapping(path = "/vets", produces = { MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE })
+	public ResponseEntity<byte[]> showResourcesVetListAsXml() {
+		return ResponseEntity.ok().eTag(this.vetDirectory.getETag() + "-xml").body(this.vetDirectory.getXml());
 	}
 
-	@GetMapping({ "/vets" })
-	public @ResponseBody Vets showResourcesVetList() {
-		// Here we are returning an object of type 'Vets' rather than a collection of Vet
-		// objects so it is simpler for JSon/Object mapping
-		Vets vets = new Vets();
-		vets.getVetList().addAll(this.vetRepository.findAll());
-		return vets;
+	/**
+	 * Return all vets as CBOR or Smile, whichever the client prefers, encoded once per
+	 * {@link VetDirectory} snapshot. A request with a matching <code>If-None-Match</code>
+	 * header gets an empty <code>304 Not Modified</code> response.
+	 * <p>
+	 * Both formats share a handler: among handlers equally acceptable to
+	 * <code>*&#47;*</code>, Spring MVC picks the one whose first media type sorts first,
+	 * and JSON must remain the default.
+	 * @param request the current request
+	 * @return the CBOR or Smile representation of {@link Vets}
+	 * @throws HttpMediaTypeNotAcceptableException if the accepted media types cannot be
+	 * parsed
+	 */
+	@GetMapping(path = "/vets",
+			produces = { BinaryRepresentationConfiguration.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+	public ResponseEntity<byte[]> showResourcesVetListAsBinary(NativeWebRequest request)
+			throws HttpMediaTypeNotAcceptableException {
+		for (MediaType accepted : this.contentNegotiationManager.resolveMediaTypes(request)) {
+			if (accepted.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+				return ResponseEntity.ok()
+					.contentType(MediaType.APPLICATION_CBOR)
+					.eTag(this.vetDirectory.getETag() + "-cbor")
+					.body(this.vetDirectory.getCbor());
+			}
+			if (accepted.isCompatibleWith(SMILE)) {
+				break;
+			}
+		}
+		return ResponseEntity.ok()
+			.contentType(SMILE)
+			.eTag(this.vetDirectory.getETag() + "-smile")
+			.body(this.vetDirectory.getSmile());
 	}
 
 }
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.samples.petclinic.model.KeysetCursor;
+import org.springframework.samples.petclinic.model.KeysetPage;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+
+/**
+ * In-memory directory of all {@link Vet}s. The vet list is shown on every kiosk and
+ * changes rarely, so it is loaded once into an immutable snapshot holding the vets as
+ * {@link VetSummary} views, ordered by last name and id, together with their JSON, XML,
+ * CBOR and Smile representations. Pages and the <code>/vets</code> resource are then
+ * served from memory without any entity or serialization work. The snapshot is replaced
+ * after the configured refresh interval (<code>petclinic.vets.refresh-interval</code>) or
+ * on {@link #refresh()}.
+ * <p>
+ * Every snapshot carries an {@link #getETag() entity tag} derived from its content, so
+ * that clients polling the vet list are answered with <code>304 Not Modified</code> until
+ * a refresh actually changes the vets.
+ */
+@Component
+public class VetDirectory {
+
+	private static final Comparator<VetSummary> ORDER = Comparator.comparing(VetSummary::getLastName)
+		.thenComparing(VetSummary::getId);
+
+	private final VetRepository vets;
+
+	private final ObjectMapper objectMapper;
+
+	private final ObjectMapper cborMapper;
+
+	private final ObjectMapper smileMapper;
+
+	private final JAXBContext jaxbContext;
+
+	private final long refreshIntervalNanos;
+
+	private volatile Snapshot snapshot;
+
+	public VetDirectory(VetRepository vets, ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cbor,
+			MappingJackson2SmileHttpMessageConverter smile,
+			@Value("${petclinic.vets.refresh-interval:10m}") Duration refreshInterval) throws JAXBException {
+		this.vets = vets;
+		this.objectMapper = objectMapper;
+		this.cborMapper = cbor.getObjectMapper();
+		this.smileMapper = smile.getObjectMapper();
+		this.jaxbContext = JAXBContext.newInstance(Vets.class);
+		this.refreshIntervalNanos = refreshInterval.toNanos();
+	}
+
+	/**
+	 * Return all vets ordered by last name and id.
+	 * @return an unmodifiable list of vets
+	 */
+	public List<VetSummary> findAll() {
+		return snapshot().vets();
+	}
+
+	/**
+	 * Return a page of vets ordered by last name and id, using keyset pagination like the
+	 * owner list.
+	 * @param cursor the position to start from, or {@literal null} for the first page
+	 * @param size the page size
+	 * @return the page of vets
+	 */
+	public KeysetPage<VetSummary> findPage(KeysetCursor cursor, int size) {
+		List<VetSummary> all = snapshot().vets();
+		List<VetSummary> fetched;
+		if (cursor == null) {
+			fetched = all.subList(0, Math.min(size + 1, all.size()));
+		}
+		else if (cursor.isForward()) {
+			int from = indexAfter(all, cursor);
+			fetched = all.subList(from, Math.min(from + size + 1, all.size()));
+		}
+		else {
+			int to = indexBefore(all, cursor);
+			fetched = new ArrayList<>(all.subList(Math.max(0, to - size - 1), to));
+			Collections.reverse(fetched);
+		}
+		return KeysetPage.of(fetched, cursor, size, VetSummary::getLastName, VetSummary::getId);
+	}
+
+	/**
+	 * Return the index of the first vet after the key of the given cursor.
+	 */
+	private static int indexAfter(List<VetSummary> all, KeysetCursor cursor) {
+		int index = Collections.binarySearch(all, null, (vet, ignored) -> compare(vet, cursor));
+		return (index >= 0) ? index + 1 : -index - 1;
+	}
+
+	/**
+	 * Return the index of the first vet at or after the key of the given cursor.
+	 */
+	private static int indexBefore(List<VetSummary> all, KeysetCursor cursor) {
+		int index = Collections.binarySearch(all, null, (vet, ignored) -> compare(vet, cursor));
+		return (index >= 0) ? index : -index - 1;
+	}
+
+	private static int compare(VetSummary vet, KeysetCursor cursor) {
+		int result = vet.getLastName().compareTo(cursor.getLastName());
+		return (result != 0) ? result : vet.getId().compareTo(cursor.getId());
+	}
+
+	/**
+	 * Return all vets as JSON, as {@link Vets} are serialized by Jackson.
+	 * @return the UTF-8 encoded JSON, must not be modified
+	 */
+	public byte[] getJson() {
+		return snapshot().json();
+	}
+
+	/**
+	 * Return all vets as CBOR, holding the same document as {@link #getJson()}.
+	 * @return the CBOR encoded vets, must not be modified
+	 */
+	public byte[] getCbor() {
+		return snapshot().cbor();
+	}
+
+	/**
+	 * Return all vets as Smile, holding the same document as {@link #getJson()}.
+	 * @return the Smile encoded vets, must not be modified
+	 */
+	public byte[] getSmile() {
+		return snapshot().smile();
+	}
+
+	/**
+	 * Return all vets as XML, as {@link Vets} are marshalled by JAXB.
+	 * @return the UTF-8 encoded XML, must not be modified
+	 */
+	public byte[] getXml() {
+		return snapshot().xml();
+	}
+
+	/**
+	 * Return the entity tag of the current vets, the same for all their representations.
+	 * It only changes when a refresh loads different vets or specialties.
+	 * @return the unquoted entity tag
+	 */
+	public String getETag() {
+		return snapshot().etag();
+	}
+
+	/**
+	 * Reload the vets from the data store, replacing the current snapshot.
+	 */
+	public void refresh() {
+		Vets all = new Vets();
+		all.getVetList().addAll(this.vets.findAll());
+		List<VetSummary> summaries = all.getVetList().stream().map(VetSummary::new).sorted(ORDER).toList();
+		byte[] json = serialize(this.objectMapper, all);
+		this.snapshot = new Snapshot(summaries, json, toXml(all), serialize(this.cborMapper, all),
+				serialize(this.smileMapper, all), DigestUtils.md5DigestAsHex(json), System.nanoTime());
+	}
+
+	private static byte[] serialize(ObjectMapper mapper, Vets vets) {
+		try {
+			return mapper.writeValueAsBytes(vets);
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot serialize vets", ex);
+		}
+	}
+
+	private byte[] toXml(Vets vets) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			this.jaxbContext.createMarshaller().marshal(vets, out);
+			return out.toByteArray();
+		}
+		catch (JAXBException ex) {
+			throw new IllegalStateException("Cannot marshal vets", ex);
+		}
+	}
+
+	private Snapshot snapshot() {
+		Snapshot current = this.snapshot;
+		if (current == null || System.nanoTime() - current.loadedAt() > this.refreshIntervalNanos) {
+			synchronized (this) {
+				current = this.snapshot;
+				if (current == null || System.nanoTime() - current.loadedAt() > this.refreshIntervalNanos) {
+					refresh();
+					current = this.snapshot;
+				}
+			}
+		}
+		return current;
+	}
+
+	private record Snapshot(List<VetSummary> vets, byte[] json, byte[] xml, byte[] cbor, byte[] smile, String etag,
+			long loadedAt) {
+	}
+
+}
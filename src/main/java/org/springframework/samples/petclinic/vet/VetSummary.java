@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.util.List;
+
+import org.springframework.core.style.ToStringCreator;
+
+/**
+ * Immutable view of a {@link Vet} held by the {@link VetDirectory}. The specialties are
+ * sorted by name once, when the view is created.
+ */
+public final class VetSummary {
+
+	private final Integer id;
+
+	private final String firstName;
+
+	private final String lastName;
+
+	private final List<Specialty> specialties;
+
+	VetSummary(Vet vet) {
+		this.id = vet.getId();
+		this.firstName = vet.getFirstName();
+		this.lastName = vet.getLastName();
+		this.specialties = List.copyOf(vet.getSpecialties());
+	}
+
+	public Integer getId() {
+		return this.id;
+	}
+
+	public String getFirstName() {
+		return this.firstName;
+	}
+
+	public String getLastName() {
+		return this.lastName;
+	}
+
+	/**
+	 * Return the vet's specialties, ordered by name.
+	 * @return an unmodifiable list of specialties
+	 */
+	public List<Specialty> getSpecialties() {
+		return this.specialties;
+	}
+
+	public int getNrOfSpecialties() {
+		return this.specialties.size();
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringCreator(this).append("id", this.id)
+			.append("lastName", this.lastName)
+			.append("firstName", this.firstName)
+			.append("specialties", this.specialties)
+			.toString();
+	}
+
+}
@@ -51,3 +51,11 @@ INSERT INTO visits (pet_id, visit_date, description) SELECT 7, '2010-03-04', 'ra
 INSERT INTO visits (pet_id, visit_date, description) SELECT 8, '2011-03-04', 'rabies shot' WHERE NOT EXISTS (SELECT * FROM visits WHERE id=2);
 INSERT INTO visits (pet_id, visit_date, description) SELECT 8, '2009-06-04', 'neutered' WHERE NOT EXISTS (SELECT * FROM visits WHERE id=3);
 INSERT INTO visits (pet_id, visit_date, description) SELECT 7, '2008-09-04', 'spayed' WHERE NOT EXISTS (SELECT * FROM visits WHERE id=4);
+
+-- Hibernate allocates ids in blocks of 50, keep each sequence a block ahead of existing rows
+SELECT setval('vets_seq', (SELECT MAX(id) + 50 FROM vets)) WHERE (SELECT last_value FROM vets_seq) < (SELECT MAX(id) + 50 FROM vets);
+SELECT setval('specialties_seq', (SELECT MAX(id) + 50 FROM specialties)) WHERE (SELECT last_value FROM specialties_seq) < (SELECT MAX(id) + 50 FROM specialties);
+SELECT setval('types_seq', (SELECT MAX(id) + 50 FROM types)) WHERE (SELECT last_value FROM types_seq) < (SELECT MAX(id) + 50 FROM types);
+SELECT setval('owners_seq', (SELECT MAX(id) + 50 FROM owners)) WHERE (SELECT last_value FROM owners_seq) < (SELECT MAX(id) + 50 FROM owners);
+SELECT setval('pets_seq', (SELECT MAX(id) + 50 FROM pets)) WHERE (SELECT last_value FROM pets_seq) < (SELECT MAX(id) + 50 FROM pets);
+SELECT setval('visits_seq', (SELECT MAX(id) + 50 FROM visits)) WHERE (SELECT last_value FROM visits_seq) < (SELECT MAX(id) + 50 FROM visits);
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.samples.petclinic.model.KeysetCursor;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Page cursors are sent back by clients, so one that cannot be decoded is a bad request
+ * rather than a server error.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class InvalidCursorTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@ParameterizedTest
+	@ValueSource(strings = { "/owners", "/api/owners", "/vets.html" })
+	void malformedCursorIsBadRequest(String path) throws Exception {
+		this.mvc.perform(get(path).param("cursor", "junk!")).andExpect(status().isBadRequest());
+		// valid Base64, but not a cursor
+		this.mvc.perform(get(path).param("cursor", "anVuaw")).andExpect(status().isBadRequest());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "/owners", "/api/owners", "/vets.html" })
+	void validCursorIsAccepted(String path) throws Exception {
+		this.mvc.perform(get(path).param("cursor", KeysetCursor.after("Davis", 2).encode())).andExpect(status().isOk());
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+/**
+ * Budgets of the SQL statements executed and the rows fetched by each endpoint, against
+ * the sample data plus generated owners. A request over budget fails the build, which
+ * catches N+1 selects and unbounded fetches when mappings or queries change. Generated
+ * owners have ten times as many pets as the sample owners, so a statement per pet does
+ * not fit their budgets.
+ * <p>
+ * Each request is sent once to warm the reference data, then measured with the
+ * second-level and Spring caches cleared, so that budgets hold for a cold owner. Budgets
+ * are set to the current counts: lower them when an endpoint gets cheaper, and only raise
+ * them for a deliberate change.
+ */
+@SpringBootTest(properties = { "petclinic.generator.owners=100", "petclinic.generator.pets-per-owner=20",
+		"petclinic.generator.visits-per-pet=30" })
+@AutoConfigureMockMvc
+class SqlBudgetTests {
+
+	// pages and redirects after a successful search
+	private static final ResultMatcher SUCCESSFUL = (result) -> assertThat(result.getResponse().getStatus())
+		.isLessThan(400);
+
+	// numbers the requests, for paths that must differ between them, e.g. new pet names
+	private final AtomicInteger requests = new AtomicInteger();
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private StatementCountingDataSource dataSource;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@ParameterizedTest(name = "{0} {1}")
+	@CsvSource(delimiter = '|', textBlock = """
+			# owner 6 has two pets of two visits in the sample data, generated owners 20 pets of
+			# 30 visits, e.g. owner 100 with pet 1038 and owner 101 with pet 1061; visits are
+			# shown in pages; {n} numbers the request
+			# method | path                                                                    | statements | rows
+			GET      | /owners/find                                                            | 0          | 0
+			GET      | /owners?lastName=                                                       | 2          | 87
+			GET      | /owners?lastName=Davis                                                  | 2          | 46
+			GET      | /owners?lastName=Franklin                                               | 2          | 2
+			GET      | /owners/search?q=mad                                                    | 2          | 323
+			GET      | /owners/6                                                               | 4          | 8
+			GET      | /owners/6/edit                                                          | 2          | 3
+			GET      | /owners/6/pets/new                                                      | 2          | 3
+			GET      | /owners/6/pets/7/edit                                                   | 3          | 4
+			GET      | /owners/6/pets/7/visits/new                                             | 3          | 4
+			GET      | /owners/6/pets/7/visits                                                 | 3          | 4
+			GET      | /owners/100                                                             | 4          | 147
+			GET      | /owners/100/pets/1038/visits                                            | 3          | 23
+			POST     | /owners/1/pets/1/visits/new?description=checkup                         | 6          | 4
+			POST     | /owners/101/pets/new?name=Nemo{n}&type=cat&birthDate=2020-01-01         | 6          | 49
+			POST     | /owners/101/pets/1061/edit?name=Basil{n}&type=cat&birthDate=2014-03-20  | 6          | 51
+			GET      | /vets.html                                                              | 0          | 0
+			GET      | /vets                                                                   | 0          | 0
+			GET      | /api/owners                                                             | 2          | 346
+			GET      | /api/owners/6                                                           | 3          | 7
+			GET      | /api/owners/6/pets/7/visits                                             | 2          | 3
+			GET      | /api/owners/100                                                         | 3          | 141
+			GET      | /api/owners/100/pets/1038/visits                                        | 2          | 22
+			""")
+	void requestStaysWithinBudget(HttpMethod method, String path, int maxStatements, long maxRows) throws Exception {
+		// form submissions redirect unless they were rejected
+		ResultMatcher successful = (method == HttpMethod.POST) ? status().is3xxRedirection() : SUCCESSFUL;
+		this.mvc.perform(request(method, path)).andExpect(successful);
+		clearCaches();
+		RequestBuilder request = request(method, path);
+		this.dataSource.start();
+		try {
+			this.mvc.perform(request).andExpect(successful);
+		}
+		finally {
+			this.dataSource.stop();
+		}
+		assertThat(this.dataSource.getStatements()).as("statements of %s %s", method, path)
+			.hasSizeLessThanOrEqualTo(maxStatements);
+		assertThat(this.dataSource.getRows()).as("rows fetched by %s %s", method, path).isLessThanOrEqualTo(maxRows);
+	}
+
+	private RequestBuilder request(HttpMethod method, String path) {
+		return MockMvcRequestBuilders.request(method, path, this.requests.incrementAndGet())
+			.accept(MediaType.TEXT_HTML, MediaType.APPLICATION_JSON);
+	}
+
+	private void clearCaches() {
+		this.entityManagerFactory.getCache().evictAll();
+		for (String name : this.cacheManager.getCacheNames()) {
+			this.cacheManager.getCache(name).clear();
+		}
+	}
+
+	@TestConfiguration(proxyBeanMethods = false)
+	static class StatementCountingConfiguration {
+
+		@Bean
+		static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+			return new BeanPostProcessor() {
+
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (beanName.equals("dataSource") && bean instanceof DataSource dataSource) {
+						return new StatementCountingDataSource(dataSource);
+					}
+					return bean;
+				}
+
+			};
+		}
+
+	}
+
+}
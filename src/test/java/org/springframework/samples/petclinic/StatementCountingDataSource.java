@@ -0,0 +1,141 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source counting the JDBC statements executed and the rows fetched through it by
+ * one thread between {@link #start()} and {@link #stop()}. Work done by other threads,
+ * such as background refreshes, is not counted.
+ */
+class StatementCountingDataSource extends DelegatingDataSource {
+
+	private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+			"executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+	private volatile Thread measured;
+
+	private final List<String> statements = new ArrayList<>();
+
+	private long rows;
+
+	StatementCountingDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	/**
+	 * Reset the counts and start counting the work of the current thread.
+	 */
+	void start() {
+		this.statements.clear();
+		this.rows = 0;
+		this.measured = Thread.currentThread();
+	}
+
+	/**
+	 * Stop counting.
+	 */
+	void stop() {
+		this.measured = null;
+	}
+
+	/**
+	 * Return the SQL of the statements executed while counting, in order; batches are
+	 * counted once.
+	 * @return the executed statements
+	 */
+	List<String> getStatements() {
+		return this.statements;
+	}
+
+	/**
+	 * Return the number of rows fetched from result sets while counting.
+	 * @return the number of rows
+	 */
+	long getRows() {
+		return this.rows;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return proxy(Connection.class, super.getConnection(), null);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return proxy(Connection.class, super.getConnection(username, password), null);
+	}
+
+	private boolean isCounting() {
+		return this.measured == Thread.currentThread();
+	}
+
+	/**
+	 * Proxy a connection, statement or result set, proxying the statements and result
+	 * sets obtained from it in turn.
+	 * @param type the JDBC interface to proxy
+	 * @param target the object to proxy
+	 * @param sql the SQL of a prepared statement, if known
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(Class<T> type, T target, String sql) {
+		return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					Object result = invoke(target, method, args);
+					if (result instanceof Statement statement && !(target instanceof Statement)) {
+						String prepared = (args != null && args.length > 0 && args[0] instanceof String s) ? s : null;
+						return proxy((Class<Statement>) method.getReturnType(), statement, prepared);
+					}
+					if (target instanceof Statement && isCounting()) {
+						if (EXECUTE_METHODS.contains(method.getName())) {
+							this.statements.add((args != null && args.length > 0) ? String.valueOf(args[0]) : sql);
+						}
+					}
+					if (result instanceof ResultSet resultSet && !(target instanceof ResultSet)) {
+						return proxy(ResultSet.class, resultSet, null);
+					}
+					if (target instanceof ResultSet && method.getName().equals("next") && Boolean.TRUE.equals(result)
+							&& isCounting()) {
+						this.rows++;
+					}
+					return result;
+				});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException ex) {
+			throw ex.getTargetException();
+		}
+	}
+
+}
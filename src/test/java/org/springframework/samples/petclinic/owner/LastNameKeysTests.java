@@ -0,0 +1,38 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class LastNameKeysTests {
+
+	@ParameterizedTest
+	@CsvSource({ "davis, daivs", "davis, davs", "davis, daviss", "davis, dovis", "ek, ke" })
+	void namesOneEditApartShareAKey(String name, String misspelled) {
+		assertThat(LastNameKeys.distance(name, misspelled)).isEqualTo(1);
+		assertThat(LastNameKeys.keys(misspelled)).containsAnyElementsOf(LastNameKeys.keys(name));
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "franklin, franklyn, 1", "franklin, frnaklni, 2", "mctavish, mactavish, 1" })
+	void distanceCountsSwapsAsOneEdit(String a, String b, int distance) {
+		assertThat(LastNameKeys.distance(a, b)).isEqualTo(distance);
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * The export format is chosen by clients, so an unknown one is a bad request rather than
+ * a server error.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OwnerExportControllerTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@ParameterizedTest
+	@CsvSource({ "ndjson, application/x-ndjson", "csv, text/csv;charset=UTF-8" })
+	void supportedFormatIsExported(String format, String contentType) throws Exception {
+		this.mvc.perform(get("/owners/export").param("format", format))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(contentType));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "xml", "json" })
+	void unknownFormatIsBadRequest(String format) throws Exception {
+		this.mvc.perform(get("/owners/export").param("format", format)).andExpect(status().isBadRequest());
+	}
+
+}
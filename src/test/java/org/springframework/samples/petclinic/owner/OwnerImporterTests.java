@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.samples.petclinic.owner.OwnerImporter.BatchResult;
+import org.springframework.samples.petclinic.owner.OwnerImporter.ImportResult;
+import org.springframework.samples.petclinic.owner.OwnerImporter.Rejection;
+
+@SpringBootTest
+class OwnerImporterTests {
+
+	@Autowired
+	private OwnerImporter importer;
+
+	@Test
+	void rejectedRecordsAreReportedInBoundedBatches() throws Exception {
+		String input = "{\"firstName\":\"Ann\"}\n".repeat(5);
+		List<BatchResult> batches = new ArrayList<>();
+		ImportResult result = this.importer
+			.importOwners(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), 2, batches::add);
+		assertThat(result.rejected()).isEqualTo(5);
+		assertThat(result.owners()).isZero();
+		assertThat(batches).extracting((batch) -> batch.rejected().size()).containsExactly(2, 2, 1);
+		assertThat(batches).extracting(BatchResult::firstLine).containsExactly(1L, 3L, 5L);
+	}
+
+	@Test
+	void malformedLineIsRejectedAndTheImportGoesOn() throws Exception {
+		String input = "{\"firstName\":\n" + owner("Malformed", "[]") + "\n";
+		List<BatchResult> batches = new ArrayList<>();
+		ImportResult result = this.importer
+			.importOwners(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), 10, batches::add);
+		assertThat(result.rejected()).isEqualTo(1);
+		assertThat(result.owners()).isEqualTo(1);
+		assertThat(batches.get(0).rejected()).extracting(Rejection::line).containsExactly(1L);
+	}
+
+	@Test
+	void petNamesMustBeUniquePerOwner() throws Exception {
+		String input = owner("Duplicate", "[{\"name\":\"Rex\",\"birthDate\":\"2019-04-02\",\"type\":\"dog\"},"
+				+ "{\"name\":\"rex\",\"birthDate\":\"2020-04-02\",\"type\":\"cat\"}]");
+		List<BatchResult> batches = new ArrayList<>();
+		ImportResult result = this.importer
+			.importOwners(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), 10, batches::add);
+		assertThat(result.owners()).isZero();
+		assertThat(batches.get(0).rejected()).singleElement()
+			.extracting(Rejection::errors)
+			.isEqualTo(List.of("pets[1].name: already exists"));
+	}
+
+	private static String owner(String lastName, String pets) {
+		return "{\"firstName\":\"Ann\",\"lastName\":\"" + lastName
+				+ "\",\"address\":\"1 Main St.\",\"city\":\"Madison\",\"telephone\":\"6085551023\",\"pets\":" + pets
+				+ "}";
+	}
+
+}
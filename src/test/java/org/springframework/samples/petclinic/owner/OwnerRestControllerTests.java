@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Sparse fieldsets and recent visits of the owner API.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OwnerRestControllerTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void fieldsSelectTopLevelProperties() throws Exception {
+		this.mvc.perform(get("/api/owners/6").param("fields", "id,lastName"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.lastName").value("Coleman"))
+			.andExpect(jsonPath("$.city").doesNotExist())
+			.andExpect(jsonPath("$.pets").doesNotExist());
+	}
+
+	@Test
+	void emptyFieldsSelectAllProperties() throws Exception {
+		this.mvc.perform(get("/api/owners/6").param("fields", ""))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.lastName").value("Coleman"))
+			.andExpect(jsonPath("$.pets.length()").value(2));
+	}
+
+	@Test
+	void petsHaveTheirRecentVisitsMostRecentFirst() throws Exception {
+		this.mvc.perform(get("/api/owners/6"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.pets[?(@.id == 7)].visits[*].description").value(contains("spayed", "rabies shot")))
+			.andExpect(
+					jsonPath("$.pets[?(@.id == 8)].visits[*].description").value(contains("neutered", "rabies shot")));
+	}
+
+}
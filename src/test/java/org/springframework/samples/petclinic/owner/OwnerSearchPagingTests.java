@@ -0,0 +1,146 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Searches matching more owners than fit on a page say so and link the next page, and the
+ * reactive owner list is paged like the JSON API.
+ */
+@SpringBootTest(properties = "petclinic.generator.owners=200")
+@AutoConfigureMockMvc
+class OwnerSearchPagingTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private OwnerSearchIndex index;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void searchPageLinksTheNextOne() throws Exception {
+		List<Integer> all = this.index.search("m", Integer.MAX_VALUE);
+		assertThat(all).hasSizeGreaterThan(50);
+		this.mvc.perform(get("/owners/search").param("q", "m"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("listOwners", Matchers.hasSize(50)))
+			.andExpect(model().attribute("searchAfter", all.get(49)))
+			.andExpect(content().string(Matchers.containsString("More owners match the search")));
+		this.mvc.perform(get("/owners/search").param("q", "m").param("after", String.valueOf(all.get(49))))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("listOwners", Matchers.hasSize(Math.min(50, all.size() - 50))));
+	}
+
+	@Test
+	void apiSearchPagesCoverAllMatches() throws Exception {
+		List<Integer> all = this.index.search("m", Integer.MAX_VALUE);
+		List<Integer> found = new ArrayList<>();
+		String next = "/api/owners?q=m";
+		while (next != null) {
+			MvcResult result = this.mvc.perform(get(next)).andExpect(status().isOk()).andReturn();
+			for (JsonNode owner : this.objectMapper.readTree(result.getResponse().getContentAsString())) {
+				found.add(owner.get("id").asInt());
+			}
+			String link = result.getResponse().getHeader(HttpHeaders.LINK);
+			next = (link != null) ? link.substring(link.indexOf('<') + 1, link.indexOf('>')) : null;
+		}
+		assertThat(found).containsExactlyInAnyOrderElementsOf(all);
+	}
+
+	@Test
+	void reactiveSearchPagesCoverAllMatches() throws Exception {
+		List<Integer> all = this.index.search("m", Integer.MAX_VALUE);
+		assertThat(followPages("/reactive/owners?q=m", MediaType.APPLICATION_JSON))
+			.containsExactlyInAnyOrderElementsOf(all);
+	}
+
+	@Test
+	void reactiveOwnerListIsPaged() throws Exception {
+		List<Integer> found = followPages("/reactive/owners", MediaType.APPLICATION_NDJSON);
+		assertThat(found).doesNotHaveDuplicates().hasSize((int) this.owners.count());
+	}
+
+	/**
+	 * Fetch the owners of the given reactive URI and the pages linked from it, checking
+	 * that no page exceeds the configured page size.
+	 */
+	private List<Integer> followPages(String uri, MediaType type) throws Exception {
+		List<Integer> found = new ArrayList<>();
+		String next = uri;
+		while (next != null) {
+			// the page is resolved, then its body streamed, each asynchronously
+			MvcResult result = this.mvc.perform(get(next).accept(type)).andReturn();
+			while (result.getRequest().isAsyncStarted()) {
+				result = this.mvc.perform(asyncDispatch(result)).andReturn();
+			}
+			assertThat(result.getResponse().getStatus()).isEqualTo(200);
+			List<Integer> page = new ArrayList<>();
+			String body = result.getResponse().getContentAsString();
+			for (JsonNode owner : type.equals(MediaType.APPLICATION_JSON) ? this.objectMapper.readTree(body)
+					: readLines(body)) {
+				page.add(owner.get("id").asInt());
+			}
+			assertThat(page).isNotEmpty().hasSizeLessThanOrEqualTo(uri.contains("q=") ? 50 : 20);
+			found.addAll(page);
+			List<String> links = result.getResponse().getHeaders(HttpHeaders.LINK);
+			next = links.stream()
+				.filter((link) -> link.endsWith("rel=\"next\""))
+				.map((link) -> link.substring(link.indexOf('<') + 1, link.indexOf('>')))
+				.findFirst()
+				.orElse(null);
+		}
+		return found;
+	}
+
+	private List<JsonNode> readLines(String body) throws Exception {
+		List<JsonNode> nodes = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			if (!line.isBlank()) {
+				nodes.add(this.objectMapper.readTree(line));
+			}
+		}
+		return nodes;
+	}
+
+}
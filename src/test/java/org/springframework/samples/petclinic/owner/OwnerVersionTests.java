@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * The version of an owner changes exactly once per change to the owner, its pets or their
+ * visits, without evicting other owners from the second-level cache.
+ */
+@SpringBootTest
+class OwnerVersionTests {
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void editingAPetIncrementsTheOwnerVersionOnce() {
+		int version = version(3);
+		Owner owner = this.owners.findById(3).orElseThrow();
+		owner.getPets().get(0).setName("Rosy Jr.");
+		this.owners.saveAndIncrementVersion(owner);
+		assertThat(version(3)).isEqualTo(version + 1);
+	}
+
+	@Test
+	void editingTheOwnerIncrementsItsVersionOnce() {
+		int version = version(4);
+		Owner owner = this.owners.findById(4).orElseThrow();
+		owner.setCity("Monona");
+		owner.getPets().get(0).setName("Jewel Jr.");
+		this.owners.saveAndIncrementVersion(owner);
+		assertThat(version(4)).isEqualTo(version + 1);
+	}
+
+	@Test
+	void bookingAVisitIncrementsTheOwnerVersionAndKeepsOtherOwnersCached() {
+		this.owners.findById(1).orElseThrow();
+		this.owners.findById(5).orElseThrow();
+		int version = version(5);
+		Visit visit = new Visit();
+		visit.setPetId(6);
+		visit.setDate(LocalDate.of(2025, 1, 1));
+		visit.setDescription("checkup");
+		this.visits.saveAndIncrementOwnerVersion(visit);
+		assertThat(version(5)).isEqualTo(version + 1);
+		assertThat(this.owners.findById(5).orElseThrow().getVersion()).isEqualTo(version + 1);
+		assertThat(this.entityManagerFactory.getCache().contains(Owner.class, 1)).isTrue();
+	}
+
+	private int version(int ownerId) {
+		return this.owners.findVersionById(ownerId).orElseThrow();
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Read-only repository queries are served by the replica of the <code>replicas</code>
+ * profile, read-write transactions by the primary, and so are the cached owner details.
+ * The replica is told apart by a change made to it alone.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("replicas")
+class ReplicaRoutingTests {
+
+	@Autowired
+	private ReplicaRouter router;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MockHttpServletRequest request;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Test
+	void readOnlyQueriesAreServedByTheReplica() {
+		// requests other than GET and HEAD read from the primary
+		this.request.setMethod("GET");
+		JdbcTemplate jdbcTemplate = replicaJdbcTemplate();
+		jdbcTemplate.update("UPDATE owners SET last_name = 'Replica' WHERE id = 1");
+		try {
+			assertThat(this.owners.findSummaryById(1)).map(OwnerSummary::getLastName).hasValue("Replica");
+			TransactionTemplate readWrite = new TransactionTemplate(this.transactionManager);
+			String primaryLastName = readWrite
+				.execute((status) -> this.owners.findSummaryById(1).map(OwnerSummary::getLastName).orElse(null));
+			assertThat(primaryLastName).isEqualTo("Franklin");
+		}
+		finally {
+			jdbcTemplate.update("UPDATE owners SET last_name = 'Franklin' WHERE id = 1");
+		}
+	}
+
+	@Test
+	void ownerDetailsAreCachedAndTaggedFromThePrimary() throws Exception {
+		Integer version = new TransactionTemplate(this.transactionManager)
+			.execute((status) -> this.owners.findVersionById(1).orElseThrow());
+		JdbcTemplate jdbcTemplate = replicaJdbcTemplate();
+		jdbcTemplate.update("UPDATE owners SET last_name = 'Replica', version = version + 10 WHERE id = 1");
+		try {
+			this.cacheManager.getCache("ownerDetails").evict(1);
+			MvcResult result = this.mvc.perform(get("/owners/1")).andExpect(status().isOk()).andReturn();
+			assertThat(result.getResponse().getContentAsString()).contains("Franklin").doesNotContain("Replica");
+			assertThat(result.getResponse().getHeader("ETag")).startsWith("W/\"1-" + version + "-");
+		}
+		finally {
+			jdbcTemplate.update("UPDATE owners SET last_name = 'Franklin', version = version - 10 WHERE id = 1");
+		}
+	}
+
+	private JdbcTemplate replicaJdbcTemplate() {
+		HikariDataSource replica = this.router.getReplicas().get(0);
+		return new JdbcTemplate(
+				new DriverManagerDataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+	}
+
+}